@@ -0,0 +1,94 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankApplication;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.example.bankcards.security.AuthenticatedUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class BenchmarkApplication {
+
+    private static final AtomicLong CARD_NUMBERS = new AtomicLong(4000_0000_0000_0000L);
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... profiles) {
+        return builder(profiles)
+                .web(WebApplicationType.NONE)
+                .run();
+    }
+
+    public static ConfigurableApplicationContext startServer(Map<String, Object> properties, String... profiles) {
+        var serverProperties = new HashMap<>(properties);
+        serverProperties.put("server.port", 0);
+
+        return builder(profiles)
+                .web(WebApplicationType.SERVLET)
+                .properties(serverProperties)
+                .run();
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static SpringApplicationBuilder builder(String... profiles) {
+        var activeProfiles = new String[profiles.length + 1];
+        activeProfiles[0] = "benchmark";
+        System.arraycopy(profiles, 0, activeProfiles, 1, profiles.length);
+
+        return new SpringApplicationBuilder(BankApplication.class)
+                .profiles(activeProfiles);
+    }
+
+    public static User createUser(ConfigurableApplicationContext context, Role role) {
+        var user = new User();
+        user.setName("Benchmark " + role);
+        user.setEmail(role.name().toLowerCase() + CARD_NUMBERS.incrementAndGet() + "@bench.local");
+        user.setPassword("{noop}password");
+        user.setRole(role);
+
+        return context.getBean(UserRepository.class).save(user);
+    }
+
+    public static Card createCard(ConfigurableApplicationContext context, User owner, BigDecimal balance) {
+        var card = Card.builder()
+                .number(String.valueOf(CARD_NUMBERS.incrementAndGet()))
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(balance)
+                .build();
+
+        return context.getBean(CardRepository.class).save(card);
+    }
+
+    public static Authentication authenticate(User user) {
+        var authentication = new UsernamePasswordAuthenticationToken(
+                AuthenticatedUser.from(user),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return authentication;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.CardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CardBalanceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private User owner;
+    private UUID cardId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        cardService = context.getBean(CardService.class);
+
+        owner = BenchmarkApplication.createUser(context, Role.USER);
+        cardId = BenchmarkApplication.createCard(context, owner, new BigDecimal("1000.00")).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        @Setup(Level.Trial)
+        public void authenticate(CardBalanceBenchmark benchmark) {
+            BenchmarkApplication.authenticate(benchmark.owner);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal getCardBalance(Caller caller) {
+        return cardService.getCardBalance(cardId);
+    }
+
+    @Benchmark
+    public BigDecimal legacyGetCardBalance(Caller caller) {
+        return cardService.getCardDto(cardId).getBalance();
+    }
+}
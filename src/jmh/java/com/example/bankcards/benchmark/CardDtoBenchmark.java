@@ -0,0 +1,46 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.mapper.CardMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardDtoBenchmark {
+
+    private CardMapper mapper;
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(CardMapper.class);
+
+        card = Card.builder()
+                .id(UUID.randomUUID())
+                .number("4276123412345678")
+                .user(new User(1L, "user@example.com", Role.USER))
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+    }
+
+    @Benchmark
+    public CardDto toDto() {
+        return mapper.toDto(card);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.CardEncryptionConfig;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.security.CardNumberCipher;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CardNumberCipherBenchmark {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private CardNumberCipher cipher;
+    private CardEncryptionConfig config;
+    private SecretKey key;
+    private SecretKey hashKey;
+    private String number;
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        config = new CardEncryptionConfig();
+        config.setKey("YmVuY2gtY2FyZC1lbmNyeXB0aW9uLWtleS0zMmJ5dGU=");
+        config.setHashKey("YmVuY2gtY2FyZC1udW1iZXItaG1hYy1rZXktMzJieXQ=");
+        cipher = new CardNumberCipher(config);
+        key = config.getSecretKey();
+        hashKey = config.getHashSecretKey();
+        number = "4276123412345679";
+        encrypted = cipher.encrypt(number);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cipher.encrypt(number);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws GeneralSecurityException {
+        var iv = new byte[12];
+        RANDOM.nextBytes(iv);
+        var cipher = Cipher.getInstance(CardNumberCipher.TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+        var ciphertext = cipher.doFinal(number.getBytes(StandardCharsets.US_ASCII));
+        var result = Arrays.copyOf(iv, iv.length + ciphertext.length);
+        System.arraycopy(ciphertext, 0, result, iv.length, ciphertext.length);
+        return Base64.getEncoder().encodeToString(result);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cipher.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String hash() {
+        return cipher.hash(number);
+    }
+
+    @Benchmark
+    public String legacyHash() throws GeneralSecurityException {
+        var mac = Mac.getInstance(CardNumberCipher.HASH_ALGORITHM);
+        mac.init(hashKey);
+        return HexFormat.of().formatHex(mac.doFinal(number.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Benchmark
+    public Card protect() {
+        var card = Card.builder().number(number).build();
+        cipher.protect(card);
+        return card;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CardNumberCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardNumberCodecBenchmark {
+
+    private static final Pattern LEGACY_CARD_REGEX = Pattern.compile("^\\d{16}$");
+
+    private CardNumberCodec codec;
+    private String number;
+    private String spacedNumber;
+    private char[] buffer;
+
+    @Setup
+    public void setUp() {
+        codec = new CardNumberCodec();
+        number = "4276123412345679";
+        spacedNumber = "4276 1234 1234 5679";
+        buffer = new char[CardNumberCodec.MASKED_LENGTH];
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return CardNumberCodec.isValid(number);
+    }
+
+    @Benchmark
+    public boolean validateSpaced() {
+        return CardNumberCodec.isValid(spacedNumber);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        return number != null && !number.isBlank() && LEGACY_CARD_REGEX.matcher(number).matches();
+    }
+
+    @Benchmark
+    public String normalizeSpaced() {
+        return CardNumberCodec.normalize(spacedNumber);
+    }
+
+    @Benchmark
+    public String mask() {
+        return codec.mask(number);
+    }
+
+    @Benchmark
+    public char[] maskIntoBuffer() {
+        codec.mask(number, buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public String legacyMask() {
+        return "**** **** **** " + number.substring(12);
+    }
+}
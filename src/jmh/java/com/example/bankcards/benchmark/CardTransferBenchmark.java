@@ -0,0 +1,79 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.config.TransferMode;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.CardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CardTransferBenchmark {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC", "ATOMIC", "LEDGER"})
+    private TransferMode mode;
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private User owner;
+    private TransferRequest forward;
+    private TransferRequest backward;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        cardService = context.getBean(CardService.class);
+        context.getBean(TransferConfig.class).setMode(mode);
+
+        owner = BenchmarkApplication.createUser(context, Role.USER);
+        var first = BenchmarkApplication.createCard(context, owner, INITIAL_BALANCE);
+        var second = BenchmarkApplication.createCard(context, owner, INITIAL_BALANCE);
+
+        forward = new TransferRequest(first.getId(), second.getId(), AMOUNT);
+        backward = new TransferRequest(second.getId(), first.getId(), AMOUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private boolean reverse;
+
+        @Setup(Level.Trial)
+        public void authenticate(CardTransferBenchmark benchmark) {
+            BenchmarkApplication.authenticate(benchmark.owner);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            SecurityContextHolder.clearContext();
+        }
+
+        TransferRequest next(CardTransferBenchmark benchmark) {
+            reverse = !reverse;
+            return reverse ? benchmark.backward : benchmark.forward;
+        }
+    }
+
+    @Benchmark
+    public void transferFundsBetweenOwnCards(Caller caller) {
+        cardService.transferFundsBetweenOwnCards(caller.next(this));
+    }
+}
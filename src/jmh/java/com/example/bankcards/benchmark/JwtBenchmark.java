@@ -0,0 +1,92 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.Jwt;
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.VerifiedToken;
+import com.example.bankcards.security.VerifiedTokenCache;
+import com.example.bankcards.service.JwtCodec;
+import com.example.bankcards.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtConfig config;
+    private JwtService jwtService;
+    private VerifiedTokenCache tokenCache;
+    private Jwt accessToken;
+    private Claims accessClaims;
+    private String compactToken;
+
+    @Setup
+    public void setUp() {
+        config = new JwtConfig();
+        config.setSecret("benchmark-secret-key-with-at-least-256-bits-of-entropy");
+        config.setAccessTokenExpiration(900);
+        config.setRefreshTokenExpiration(604800);
+        jwtService = new JwtService(config, new JwtCodec(config));
+        tokenCache = new VerifiedTokenCache(jwtService, config, new SimpleMeterRegistry());
+
+        var user = new User(42L, "user@example.com", Role.USER);
+        user.setName("Benchmark User");
+
+        accessToken = jwtService.generateAccessToken(user);
+        compactToken = accessToken.toString();
+        accessClaims = legacyParseToken();
+    }
+
+    @Benchmark
+    public Jwt parseToken() {
+        return jwtService.parseToken(compactToken);
+    }
+
+    @Benchmark
+    public Claims legacyParseToken() {
+        return Jwts.parser()
+                .verifyWith(config.getSecretKey())
+                .build()
+                .parseSignedClaims(compactToken)
+                .getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return tokenCache.verify(compactToken);
+    }
+
+    @Benchmark
+    public String jwtToString() {
+        return accessToken.toString();
+    }
+
+    @Benchmark
+    public String legacyJwtToString() {
+        return Jwts.builder()
+                .claims(accessClaims)
+                .signWith(config.getSecretKey())
+                .compact();
+    }
+
+    @Benchmark
+    public boolean isExpired() {
+        return accessToken.isExpired();
+    }
+
+    @Benchmark
+    public boolean legacyIsExpired() {
+        return accessClaims.getExpiration().before(new Date());
+    }
+}
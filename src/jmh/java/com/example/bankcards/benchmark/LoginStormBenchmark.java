@@ -0,0 +1,133 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.auth.LoginRequest;
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.LoginThrottledException;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.AuthService;
+import com.example.bankcards.service.CardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final int REQUEST_WORKERS = 8;
+    private static final int STORM_CLIENTS = 32;
+    private static final long CLIENT_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    public enum Storm {
+        NONE,
+        INLINE,
+        EXECUTOR
+    }
+
+    @Param({"NONE", "INLINE", "EXECUTOR"})
+    private Storm storm;
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private AuthService authService;
+    private User owner;
+    private UUID cardId;
+    private LoginRequest loginRequest;
+    private Semaphore requestWorkers;
+    private ExecutorService stormClients;
+    private volatile boolean storming;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        cardService = context.getBean(CardService.class);
+        authService = context.getBean(AuthService.class);
+
+        owner = BenchmarkApplication.createUser(context, Role.USER);
+        owner.setPassword(context.getBean(PasswordEncoder.class).encode("password"));
+        owner = context.getBean(UserRepository.class).save(owner);
+        cardId = BenchmarkApplication.createCard(context, owner, BigDecimal.TEN).getId();
+
+        loginRequest = new LoginRequest();
+        loginRequest.setEmail(owner.getEmail());
+        loginRequest.setPassword("password");
+
+        requestWorkers = new Semaphore(REQUEST_WORKERS);
+        stormClients = Executors.newFixedThreadPool(STORM_CLIENTS);
+        storming = storm != Storm.NONE;
+        for (int i = 0; storming && i < STORM_CLIENTS; i++) {
+            stormClients.submit(this::loginUntilStopped);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        storming = false;
+        stormClients.shutdown();
+        stormClients.awaitTermination(1, TimeUnit.MINUTES);
+        context.close();
+    }
+
+    private void loginUntilStopped() {
+        while (storming) {
+            CompletableFuture<?> pending = null;
+            requestWorkers.acquireUninterruptibly();
+            try {
+                if (storm == Storm.INLINE) {
+                    authService.login(loginRequest);
+                } else {
+                    pending = authService.loginAsync(loginRequest);
+                }
+            } catch (LoginThrottledException ignored) {
+            } finally {
+                requestWorkers.release();
+            }
+
+            if (pending != null) {
+                pending.join();
+            } else if (storm == Storm.EXECUTOR) {
+                LockSupport.parkNanos(CLIENT_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        @Setup(Level.Trial)
+        public void authenticate(LoginStormBenchmark benchmark) {
+            BenchmarkApplication.authenticate(benchmark.owner);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public CardDto readCard(Caller caller) {
+        requestWorkers.acquireUninterruptibly();
+        try {
+            return cardService.getCardDto(cardId);
+        } finally {
+            requestWorkers.release();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(ServerThreadingBenchmark.CLIENTS)
+@Fork(1)
+public class ServerThreadingBenchmark {
+
+    static final int CLIENTS = 256;
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private Threading threading;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private ObjectMapper objectMapper;
+    private URI cardsUri;
+    private URI transferUri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = threading == Threading.VIRTUAL
+                ? BenchmarkApplication.startServer(Map.of(), "virtual-threads")
+                : BenchmarkApplication.startServer(Map.of("spring.datasource.hikari.maximum-pool-size", 20));
+        if (!threading.isActive(context.getEnvironment())) {
+            context.close();
+            throw new IllegalStateException(threading + " threading is not available on Java " + Runtime.version());
+        }
+
+        objectMapper = context.getBean(ObjectMapper.class);
+        client = HttpClient.newHttpClient();
+        var baseUri = "http://localhost:" + BenchmarkApplication.port(context);
+        cardsUri = URI.create(baseUri + "/api/cards/my");
+        transferUri = URI.create(baseUri + "/api/cards/transfer");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private String authorization;
+        private String forward;
+        private String backward;
+        private boolean reverse;
+
+        @Setup(Level.Trial)
+        public void createCards(ServerThreadingBenchmark benchmark) throws IOException {
+            var owner = BenchmarkApplication.createUser(benchmark.context, Role.USER);
+            var first = BenchmarkApplication.createCard(benchmark.context, owner, INITIAL_BALANCE);
+            var second = BenchmarkApplication.createCard(benchmark.context, owner, INITIAL_BALANCE);
+
+            authorization = "Bearer " + benchmark.context.getBean(JwtService.class).generateAccessToken(owner);
+            forward = benchmark.objectMapper.writeValueAsString(
+                    new TransferRequest(first.getId(), second.getId(), AMOUNT));
+            backward = benchmark.objectMapper.writeValueAsString(
+                    new TransferRequest(second.getId(), first.getId(), AMOUNT));
+        }
+
+        String nextTransfer() {
+            reverse = !reverse;
+            return reverse ? backward : forward;
+        }
+    }
+
+    @Benchmark
+    public String getUserCards(Caller caller) throws Exception {
+        return send(HttpRequest.newBuilder(cardsUri)
+                .header("Authorization", caller.authorization)
+                .GET()
+                .build());
+    }
+
+    @Benchmark
+    public String transferBetweenOwnCards(Caller caller) throws Exception {
+        return send(HttpRequest.newBuilder(transferUri)
+                .header("Authorization", caller.authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(caller.nextTransfer()))
+                .build());
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.balance-cache")
+@Data
+public class BalanceCacheConfig {
+    private boolean enabled = true;
+    private long maximumSize = 100_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
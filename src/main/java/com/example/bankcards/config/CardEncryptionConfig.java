@@ -0,0 +1,26 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.card-encryption")
+@Data
+public class CardEncryptionConfig {
+    private String key;
+    private String hashKey;
+    private int poolSize = 64;
+
+    public SecretKey getSecretKey() {
+        return new SecretKeySpec(Base64.getDecoder().decode(key), "AES");
+    }
+
+    public SecretKey getHashSecretKey() {
+        return new SecretKeySpec(Base64.getDecoder().decode(hashKey), "HmacSHA256");
+    }
+}
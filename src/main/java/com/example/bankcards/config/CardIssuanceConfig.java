@@ -0,0 +1,12 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.card-issuance")
+@Data
+public class CardIssuanceConfig {
+    private int batchSize = 500;
+}
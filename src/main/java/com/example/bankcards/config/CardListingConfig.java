@@ -0,0 +1,14 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.card-listing")
+@Data
+public class CardListingConfig {
+    private int defaultPageSize = 50;
+    private int maxPageSize = 500;
+    private int exportFetchSize = 1000;
+}
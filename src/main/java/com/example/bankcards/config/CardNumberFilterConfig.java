@@ -0,0 +1,19 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.card-number-filter")
+@Data
+public class CardNumberFilterConfig {
+    private boolean enabled = true;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveRate = 0.01;
+    private int fetchSize = 10_000;
+    private boolean asyncLoad = true;
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
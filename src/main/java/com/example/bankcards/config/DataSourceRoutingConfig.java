@@ -0,0 +1,56 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.datasource.DataSourceCluster;
+import com.example.bankcards.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+
+@Configuration
+@ConditionalOnProperty(prefix = "spring.replicas", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public DataSourceCluster dataSourceCluster(DataSourceProperties properties, ReplicaConfig config,
+                                               Environment environment, MeterRegistry registry) {
+        var primary = hikari(environment, DataSourceCluster.PRIMARY,
+                properties.determineUrl(), properties.determineUsername(), properties.determinePassword());
+
+        var replicas = new LinkedHashMap<String, HikariDataSource>();
+        for (ReplicaConfig.Replica replica : config.getDatasources()) {
+            replicas.put(replica.getName(), hikari(environment, replica.getName(),
+                    replica.getUrl(), replica.getUsername(), replica.getPassword()));
+        }
+
+        return new DataSourceCluster(primary, replicas, config, registry);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceCluster cluster) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(cluster));
+    }
+
+    private static HikariDataSource hikari(Environment environment, String name,
+                                           String url, String username, String password) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
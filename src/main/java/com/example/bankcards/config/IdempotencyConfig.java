@@ -0,0 +1,17 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.idempotency")
+@Data
+public class IdempotencyConfig {
+    private Duration keyTtl = Duration.ofHours(24);
+    private Duration cleanupInterval = Duration.ofHours(1);
+    private long cacheSize = 10_000;
+    private Duration cacheTtl = Duration.ofMinutes(10);
+}
@@ -2,36 +2,45 @@ package com.example.bankcards.config;
 
 import com.example.bankcards.entity.Role;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 
-import javax.crypto.SecretKey;
-import java.util.Date;
+import java.time.Instant;
 
 public class Jwt {
     private final Claims claims;
-    private final SecretKey key;
+    private final String compact;
+    private final long expiresAtMillis;
 
-    public Jwt(Claims claims, SecretKey key) {
+    public Jwt(Claims claims, String compact) {
         this.claims = claims;
-        this.key = key;
+        this.compact = compact;
+        this.expiresAtMillis = claims.getExpiration().getTime();
     }
 
     public boolean isExpired() {
-        return claims.getExpiration().before(new Date());
+        return expiresAtMillis < System.currentTimeMillis();
+    }
+
+    public Instant getExpiresAt() {
+        return Instant.ofEpochMilli(expiresAtMillis);
     }
 
     public Long getUserId() {
         return Long.valueOf(claims.getSubject());
     }
 
+    public String getEmail() {
+        return claims.get("email", String.class);
+    }
+
+    public String getName() {
+        return claims.get("name", String.class);
+    }
+
     public Role getRole() {
         return Role.valueOf(claims.get("role", String.class));
     }
 
     public String toString() {
-        return Jwts.builder()
-                .claims(claims)
-                .signWith(key)
-                .compact();
+        return compact;
     }
 }
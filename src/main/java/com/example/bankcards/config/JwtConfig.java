@@ -6,6 +6,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 
 @Configuration
 @ConfigurationProperties(prefix = "spring.jwt")
@@ -14,8 +15,16 @@ public class JwtConfig {
     private String secret;
     private int accessTokenExpiration;
     private int refreshTokenExpiration;
+    private TokenCache tokenCache = new TokenCache();
 
     public SecretKey getSecretKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
+
+    @Data
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration maxTtl = Duration.ofMinutes(5);
+    }
 }
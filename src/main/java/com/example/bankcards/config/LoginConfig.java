@@ -0,0 +1,17 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.login")
+@Data
+public class LoginConfig {
+    private int bcryptStrength = 10;
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.replicas")
+@Data
+public class ReplicaConfig {
+    private boolean enabled = false;
+    private List<Replica> datasources = new ArrayList<>();
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    private String lagQuery = """
+            SELECT CASE
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.monitoring.SqlStatisticsFilter;
 import com.example.bankcards.security.JwtAuthenticationFilter;
 import com.example.bankcards.security.SecurityRules;
+import com.example.bankcards.security.ExactCostBCryptPasswordEncoder;
+import com.example.bankcards.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,8 +18,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
@@ -32,18 +36,22 @@ import java.util.List;
 @AllArgsConstructor
 public class SecurityConfig {
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final LoginConfig loginConfig;
+    private final MeterRegistry meterRegistry;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final List<SecurityRules> featureSecurityRules;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new ExactCostBCryptPasswordEncoder(loginConfig.getBcryptStrength()), meterRegistry);
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
         var provider = new DaoAuthenticationProvider(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
@@ -75,14 +83,19 @@ public class SecurityConfig {
                 "Origin",
                 "Access-Control-Request-Method",
                 "Access-Control-Request-Headers",
-                "Cache-Control"
+                "Cache-Control",
+                "If-None-Match"
         ));
 
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
                 "Content-Type",
                 "Content-Disposition",
-                "X-Total-Count"
+                "X-Total-Count",
+                "ETag",
+                SqlStatisticsFilter.STATEMENTS_HEADER,
+                SqlStatisticsFilter.ROWS_HEADER,
+                SqlStatisticsFilter.TIME_HEADER
         ));
 
         configuration.setAllowCredentials(true);
@@ -0,0 +1,13 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.sql-metrics")
+@Data
+public class SqlMetricsConfig {
+    private boolean enabled = true;
+    private boolean exposeHeaders = true;
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.transfer")
+@Data
+public class TransferConfig {
+    private TransferMode mode = TransferMode.OPTIMISTIC;
+    private Duration lockTimeout = Duration.ofSeconds(3);
+    private Retry retry = new Retry();
+    private Ledger ledger = new Ledger();
+
+    @Data
+    public static class Retry {
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofMillis(10);
+        private Duration maxBackoff = Duration.ofMillis(200);
+        private double multiplier = 2.0;
+    }
+
+    @Data
+    public static class Ledger {
+        private Duration applyInterval = Duration.ofSeconds(1);
+        private int batchSize = 1000;
+    }
+}
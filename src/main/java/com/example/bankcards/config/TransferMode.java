@@ -0,0 +1,8 @@
+package com.example.bankcards.config;
+
+public enum TransferMode {
+    OPTIMISTIC,
+    PESSIMISTIC,
+    ATOMIC,
+    LEDGER
+}
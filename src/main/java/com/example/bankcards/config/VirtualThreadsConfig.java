@@ -0,0 +1,14 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.virtual-threads")
+@Data
+public class VirtualThreadsConfig {
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
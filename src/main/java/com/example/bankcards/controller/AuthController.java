@@ -1,19 +1,24 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.config.LoginConfig;
 import com.example.bankcards.dto.auth.JwtResponse;
 import com.example.bankcards.dto.auth.LoginRequest;
+import com.example.bankcards.exception.ErrorDto;
+import com.example.bankcards.exception.LoginThrottledException;
 import com.example.bankcards.service.AuthService;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @Tag(
         name = "Аутентификация",
         description = "API для входа в систему, обновления токенов и управления сессиями"
@@ -24,23 +29,25 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final JwtConfig config;
+    private final LoginConfig loginConfig;
     private final AuthService service;
 
     @PostMapping("/login")
-    public JwtResponse login(
-            @Valid @RequestBody LoginRequest request,
-            HttpServletResponse response) {
-        var loginResult = service.login(request);
-        var refreshToken = loginResult.getRefreshToken().toString();
-
-        var cookie = new Cookie("refreshToken", refreshToken);
-        cookie.setHttpOnly(true);
-        cookie.setPath("/auth/refresh");
-        cookie.setMaxAge(config.getRefreshTokenExpiration());
-        cookie.setSecure(true);
-        response.addCookie(cookie);
-
-        return new JwtResponse(loginResult.getAccessToken().toString());
+    public CompletableFuture<ResponseEntity<JwtResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return service.loginAsync(request).thenApply(loginResult -> {
+            var refreshToken = loginResult.getRefreshToken().toString();
+
+            var cookie = ResponseCookie.from("refreshToken", refreshToken)
+                    .httpOnly(true)
+                    .path("/auth/refresh")
+                    .maxAge(config.getRefreshTokenExpiration())
+                    .secure(true)
+                    .build();
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                    .body(new JwtResponse(loginResult.getAccessToken().toString()));
+        });
     }
 
     @PostMapping("/refresh")
@@ -53,4 +60,11 @@ public class AuthController {
     public ResponseEntity<Void> handleBadCredentialsException() {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorDto> handleLoginThrottled(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginConfig.getRetryAfter().toSeconds()))
+                .body(new ErrorDto(ex.getMessage()));
+    }
 }
@@ -1,11 +1,23 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.card.BalanceMismatchDto;
+import com.example.bankcards.dto.card.BulkCreateCardRequest;
+import com.example.bankcards.dto.card.BulkCreateCardResponse;
+import com.example.bankcards.dto.card.CardCursorPage;
 import com.example.bankcards.dto.card.CardDto;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.UpdateCardStatusRequest;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.exception.*;
+import com.example.bankcards.service.CardIssuanceService;
+import com.example.bankcards.service.CardListingService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.IdempotentTransferService;
+import com.example.bankcards.service.LedgerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,16 +26,24 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
@@ -38,6 +58,11 @@ import java.util.UUID;
 public class CardController {
 
     private final CardService service;
+    private final LedgerService ledgerService;
+    private final IdempotentTransferService idempotentTransferService;
+    private final CardListingService cardListingService;
+    private final CardIssuanceService cardIssuanceService;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Создать новую карту",
@@ -54,6 +79,22 @@ public class CardController {
         return ResponseEntity.created(uri).body(card);
     }
 
+    @Operation(
+            summary = "Выпустить карты пакетом",
+            description = "Только для администраторов. Создает карты одной транзакцией. " +
+                    "Карты с несуществующим пользователем или занятым номером не создаются, " +
+                    "остальные выпускаются."
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан, результат по каждой карте"),
+            @ApiResponse(responseCode = "400", description = "Некорректные данные")
+    })
+    @PostMapping("/bulk")
+    public BulkCreateCardResponse createCards(@Valid @RequestBody BulkCreateCardRequest request) {
+        return cardIssuanceService.createCards(request);
+    }
+
     @Operation(
             summary = "Заблокировать свою карту",
             description = "Позволяет владельцу карты заблокировать её."
@@ -71,29 +112,115 @@ public class CardController {
 
     @Operation(
             summary = "Перевод между своими картами",
-            description = "Перевод средств между картами одного пользователя."
+            description = "Перевод средств между картами одного пользователя. " +
+                    "Повтор запроса с тем же заголовком Idempotency-Key не выполняет перевод повторно."
     )
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Перевод выполнен успешно"),
             @ApiResponse(responseCode = "400", description = "Недостаточно средств или некорректные данные"),
-            @ApiResponse(responseCode = "403", description = "Нет доступа к одной из карт")
+            @ApiResponse(responseCode = "403", description = "Нет доступа к одной из карт"),
+            @ApiResponse(responseCode = "409", description = "Карта изменена параллельным запросом, повторите перевод"),
+            @ApiResponse(responseCode = "422", description = "Ключ идемпотентности уже использован для другого перевода")
     })
     @PostMapping("/transfer")
-    public void transferBetweenOwnCards(@Valid @RequestBody TransferRequest request) {
-        service.transferFundsBetweenOwnCards(request);
+    public void transferBetweenOwnCards(
+            @Parameter(description = "Уникальный ключ запроса для безопасного повтора")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody TransferRequest request) {
+        if (idempotencyKey == null) {
+            service.transferFundsBetweenOwnCards(request);
+            return;
+        }
+        idempotentTransferService.transfer(request, idempotencyKey);
+    }
+
+    @Operation(
+            summary = "Пакетный перевод между своими картами",
+            description = "Выполняет несколько переводов в одной транзакции. " +
+                    "При allOrNothing=true любая ошибка откатывает весь пакет."
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан, результат по каждому переводу"),
+            @ApiResponse(responseCode = "400", description = "Пакет отклонён и откатен, либо некорректные данные"),
+            @ApiResponse(responseCode = "409", description = "Не удалось заблокировать карты, повторите запрос")
+    })
+    @PostMapping("/transfer/batch")
+    public BatchTransferResponse transferBatchBetweenOwnCards(@Valid @RequestBody BatchTransferRequest request) {
+        return service.transferFundsInBatch(request);
     }
 
+    @Operation(
+            summary = "Сверка балансов с журналом переводов",
+            description = "Только для администраторов. Пересчитывает балансы карт по журналу " +
+                    "и исправляет расхождения."
+    )
     @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Список исправленных расхождений")
+    })
+    @PostMapping("/ledger/rebuild")
+    public List<BalanceMismatchDto> rebuildBalancesFromLedger() {
+        return ledgerService.rebuildBalances();
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Карта найдена, версия передана в заголовке ETag"),
+            @ApiResponse(responseCode = "304", description = "Карта не изменилась с версии из If-None-Match"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа к карте"),
+            @ApiResponse(responseCode = "404", description = "Карта не найдена")
+    })
     @GetMapping("/{id}")
-    public CardDto getCard(@PathVariable(name = "id") UUID id) {
-        return service.getCardDto(id);
+    public ResponseEntity<CardDto> getCard(
+            @PathVariable(name = "id") UUID id,
+            @Parameter(description = "ETag ранее полученной версии карты")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            var version = String.valueOf(service.getCardVersion(id));
+            if (ConditionalResponses.isNotModified(ifNoneMatch, version)) {
+                return ConditionalResponses.notModified(version);
+            }
+        }
+
+        var card = service.getCardDto(id);
+        return ConditionalResponses.ok(card, String.valueOf(card.getVersion()));
     }
 
+    @Operation(
+            summary = "Получить все карты",
+            description = "Только для администраторов. Постраничный список карт, упорядоченный по id. " +
+                    "Для следующей страницы передайте nextCursor из предыдущего ответа в параметре cursor."
+    )
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping
-    public List<CardDto> getCards() {
-        return service.getAllCards();
+    public CardCursorPage getCards(
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы")
+            @RequestParam(name = "cursor", required = false) UUID cursor,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(name = "size", required = false) Integer size) {
+        return cardListingService.getCards(cursor, size);
+    }
+
+    @Operation(
+            summary = "Выгрузить все карты",
+            description = "Только для администраторов. Потоковая выгрузка всех карт в формате NDJSON, " +
+                    "по одной карте в строке."
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCards() {
+        StreamingResponseBody body = out -> {
+            try (var generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                cardListingService.exportCards(card -> writeLine(generator, card));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Operation(
@@ -115,10 +242,46 @@ public class CardController {
     )
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/my")
-    public Page<CardDto> getUserCards(
+    public ResponseEntity<Page<CardDto>> getUserCards(
             @Parameter(description = "Параметры пагинации и сортировки")
-            @PageableDefault(sort = "expirationDate", direction = Sort.Direction.ASC) Pageable pageable) {
-        return service.getUserCards(pageable);
+            @PageableDefault(sort = "expirationDate", direction = Sort.Direction.ASC) Pageable pageable,
+            @Parameter(description = "ETag ранее полученной страницы")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            var version = service.getUserCardsVersion(pageable);
+            if (ConditionalResponses.isNotModified(ifNoneMatch, version)) {
+                return ConditionalResponses.notModified(version);
+            }
+        }
+
+        var page = service.getUserCards(pageable);
+        return ConditionalResponses.ok(page, service.getPageVersion(page));
+    }
+
+    @Operation(
+            summary = "Получить свои карты по курсору",
+            description = """
+                    Получить список карт текущего пользователя без подсчёта общего количества.
+                    Стоимость запроса не зависит от номера страницы.
+                    
+                    **Примеры запросов:**
+                    - `GET /api/cards/my/scroll` - первые 50 карт, сортировка по expirationDate ASC
+                    - `GET /api/cards/my/scroll?sort=balance,desc&size=10` - сортировка по балансу по убыванию
+                    - `GET /api/cards/my/scroll?cursor=...` - следующая страница, сортировка берётся из курсора
+                    
+                    **Поддерживаемые поля для сортировки:** `expirationDate` (по умолчанию), `balance`, `status`
+                    """
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/my/scroll")
+    public CardCursorPage scrollUserCards(
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Поле и направление сортировки")
+            @SortDefault(sort = "expirationDate", direction = Sort.Direction.ASC) Sort sort) {
+        return cardListingService.scrollUserCards(sort, size, cursor);
     }
 
     @Operation(
@@ -146,6 +309,15 @@ public class CardController {
         service.removeCard(id);
     }
 
+    private static void writeLine(JsonGenerator generator, CardDto card) {
+        try {
+            generator.writeObject(card);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @ExceptionHandler(DuplicateCardException.class)
     public ResponseEntity<ErrorDto> handleDuplicateCardException() {
         return ResponseEntity.badRequest()
@@ -157,6 +329,13 @@ public class CardController {
         return ResponseEntity.notFound().build();
     }
 
+    @ExceptionHandler(CardHasPendingTransfersException.class)
+    public ResponseEntity<ErrorDto> handleCardHasPendingTransfers() {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorDto("Card has pending transfers, please retry later"));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorDto> handleAccessDenied(Exception ex) {
         return ResponseEntity
@@ -173,4 +352,26 @@ public class CardController {
     public ResponseEntity<ErrorDto> handleNotEnoughFunds(Exception ex) {
         return ResponseEntity.badRequest().body(new ErrorDto(ex.getMessage()));
     }
+
+    @ExceptionHandler(BatchTransferRejectedException.class)
+    public ResponseEntity<BatchTransferResponse> handleBatchTransferRejected(BatchTransferRejectedException ex) {
+        return ResponseEntity.badRequest().body(ex.getResponse());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursor(Exception ex) {
+        return ResponseEntity.badRequest().body(new ErrorDto(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDto> handleIdempotencyKeyReused(Exception ex) {
+        return ResponseEntity.unprocessableEntity().body(new ErrorDto(ex.getMessage()));
+    }
+
+    @ExceptionHandler({ConcurrencyFailureException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorDto> handleConcurrencyFailure() {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorDto("Card was modified concurrently, please retry"));
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.bankcards.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+final class ConditionalResponses {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static boolean isNotModified(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        var current = new ETag(version, false);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    static <T> ResponseEntity<T> notModified(String version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(version)
+                .cacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    static <T> ResponseEntity<T> ok(T body, String version) {
+        return ResponseEntity.ok()
+                .eTag(version)
+                .cacheControl(CACHE_CONTROL)
+                .body(body);
+    }
+}
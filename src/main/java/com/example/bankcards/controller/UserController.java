@@ -8,6 +8,7 @@ import com.example.bankcards.exception.DuplicateUserException;
 import com.example.bankcards.exception.ErrorDto;
 import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,6 +17,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -79,6 +81,10 @@ public class UserController {
                             schema = @Schema(implementation = UserDto.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Пользователь не изменился с версии из If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Пользователь не найден",
@@ -90,8 +96,22 @@ public class UserController {
     })
     @GetMapping("/{id}")
     @SecurityRequirement(name = "bearerAuth")
-    public UserDto getUser(@PathVariable Long id) {
-        return service.getUserDto(id);
+    public ResponseEntity<UserDto> getUser(
+            @PathVariable Long id,
+            @Parameter(description = "ETag ранее полученной версии пользователя")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            var version = service.getUserVersion(id);
+            if (ConditionalResponses.isNotModified(ifNoneMatch, String.valueOf(version))) {
+                return ConditionalResponses.notModified(String.valueOf(version));
+            }
+
+            var user = service.getUserDto(id, version);
+            return ConditionalResponses.ok(user, String.valueOf(user.getVersion()));
+        }
+
+        var user = service.getUserDto(id);
+        return ConditionalResponses.ok(user, String.valueOf(user.getVersion()));
     }
 
     @Operation(
@@ -0,0 +1,103 @@
+package com.example.bankcards.datasource;
+
+import com.example.bankcards.config.ReplicaConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DataSourceCluster implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaConfig config;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public DataSourceCluster(HikariDataSource primary, Map<String, HikariDataSource> replicas,
+                             ReplicaConfig config, MeterRegistry registry) {
+        this.primary = primary;
+        this.config = config;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, Replica::lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    public Map<Object, Object> targets() {
+        var targets = new HashMap<Object, Object>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        return targets;
+    }
+
+    public String selectReplica() {
+        var available = replicas.stream().filter(Replica::isAvailable).toList();
+        if (available.isEmpty()) {
+            return PRIMARY;
+        }
+        return available.get(Math.floorMod(next.getAndIncrement(), available.size())).name;
+    }
+
+    public void markUnavailable(String name) {
+        replicas.stream()
+                .filter(replica -> replica.name.equals(name))
+                .forEach(replica -> replica.lagSeconds = Double.NaN);
+    }
+
+    @Scheduled(fixedDelayString = "#{@replicaConfig.lagCheckInterval.toMillis()}")
+    public void checkReplicationLag() {
+        for (Replica replica : replicas) {
+            try {
+                var lag = new JdbcTemplate(replica.dataSource).queryForObject(config.getLagQuery(), Double.class);
+                replica.lagSeconds = lag == null ? Double.NaN : lag;
+            } catch (RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private double lagSeconds() {
+            return lagSeconds;
+        }
+
+        private boolean isAvailable() {
+            return lagSeconds <= config.getMaxLag().toMillis() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSourceCluster cluster;
+
+    public ReplicaRoutingDataSource(DataSourceCluster cluster) {
+        this.cluster = cluster;
+        setTargetDataSources(cluster.targets());
+        setDefaultTargetDataSource(cluster.primary());
+        setLenientFallback(false);
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return cluster.selectReplica();
+        }
+        return DataSourceCluster.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var key = determineCurrentLookupKey();
+        if (DataSourceCluster.PRIMARY.equals(key)) {
+            return cluster.primary().getConnection();
+        }
+
+        try {
+            return getResolvedDataSources().get(key).getConnection();
+        } catch (SQLException e) {
+            cluster.markUnavailable((String) key);
+            return cluster.primary().getConnection();
+        }
+    }
+}
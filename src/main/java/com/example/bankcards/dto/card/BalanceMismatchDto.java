@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class BalanceMismatchDto {
+    private UUID cardId;
+    private BigDecimal balance;
+    private BigDecimal ledgerBalance;
+}
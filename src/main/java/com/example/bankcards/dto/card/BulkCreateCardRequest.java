@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.card;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Пакет карт для выпуска")
+public class BulkCreateCardRequest {
+
+    @NotEmpty(message = "Cards must be provided")
+    @Size(max = 5000, message = "Batch must contain at most 5000 cards")
+    @Schema(description = "Карты для выпуска, результат возвращается по каждой позиции")
+    private List<@Valid CreateCardRequest> cards;
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkCreateCardResponse {
+    private int created;
+    private List<CardIssueResult> results;
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CardCursorPage {
+
+    private List<CardDto> items;
+    private String nextCursor;
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto.card;
 
 import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,7 @@ public class CardDto {
     private LocalDate expirationDate;
     private CardStatus status;
     private BigDecimal balance;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class CardIssueResult {
+    private int index;
+    private CardIssueStatus status;
+    private UUID cardId;
+    private String error;
+}
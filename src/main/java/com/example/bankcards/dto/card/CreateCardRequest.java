@@ -1,5 +1,6 @@
 package com.example.bankcards.dto.card;
 
+import com.example.bankcards.util.CardNumberCodec;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.FutureOrPresent;
@@ -32,4 +33,8 @@ public class CreateCardRequest {
     @NotNull(message = "Balance must be provided")
     @DecimalMin(value = "0.01", message = "Balance must be greater than 0")
     private BigDecimal balance;
+
+    public void setNumber(String number) {
+        this.number = CardNumberCodec.normalize(number);
+    }
 }
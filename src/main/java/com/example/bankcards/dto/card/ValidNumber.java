@@ -10,7 +10,7 @@ import java.lang.annotation.*;
 @Target({ElementType.FIELD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ValidNumber {
-    String message() default "Card number requires 16 digits";
+    String message() default "Card number requires 16 digits with a valid checksum";
 
     Class<?>[] groups() default {};
 
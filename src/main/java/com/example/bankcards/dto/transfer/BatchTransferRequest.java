@@ -0,0 +1,33 @@
+package com.example.bankcards.dto.transfer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Пакет переводов между своими картами")
+public class BatchTransferRequest {
+
+    @NotEmpty(message = "Transfers must be provided")
+    @Size(max = 100, message = "Batch must contain at most 100 transfers")
+    @Schema(description = "Переводы, выполняемые по порядку в одной транзакции")
+    private List<@Valid TransferRequest> transfers;
+
+    @Builder.Default
+    @Schema(
+            description = "true - при ошибке любого перевода откатывается весь пакет, " +
+                    "false - выполняются только корректные переводы",
+            defaultValue = "true"
+    )
+    private boolean allOrNothing = true;
+}
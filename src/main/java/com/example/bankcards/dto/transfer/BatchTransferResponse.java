@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchTransferResponse {
+    private boolean committed;
+    private List<TransferResult> results;
+}
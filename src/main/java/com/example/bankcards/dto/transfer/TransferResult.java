@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TransferResult {
+    private int index;
+    private TransferStatus status;
+    private String error;
+}
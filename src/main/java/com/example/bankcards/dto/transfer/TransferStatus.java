@@ -0,0 +1,7 @@
+package com.example.bankcards.dto.transfer;
+
+public enum TransferStatus {
+    COMPLETED,
+    FAILED,
+    ROLLED_BACK
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto.user;
 
 import com.example.bankcards.entity.Role;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -11,4 +12,7 @@ public class UserDto {
     private String name;
     private String email;
     private Role role;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -1,5 +1,6 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.security.CardNumberListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import java.util.UUID;
 @Setter
 @Entity
 @Table(name = "cards")
+@EntityListeners(CardNumberListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -21,10 +23,19 @@ public class Card {
     @Column(name = "id")
     private UUID id;
 
-    @Column(name = "number", updatable = false)
+    @Transient
     private String number;
 
-    @ManyToOne
+    @Column(name = "number_encrypted", updatable = false)
+    private String numberEncrypted;
+
+    @Column(name = "number_hash", updatable = false)
+    private String numberHash;
+
+    @Column(name = "number_last4", updatable = false)
+    private String numberLast4;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -38,10 +49,18 @@ public class Card {
     @Column(name = "balance")
     private BigDecimal balance;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     public boolean isOwnedBy(User user) {
         return this.user.equals(user);
     }
 
+    public boolean isOwnedBy(Long userId) {
+        return this.user != null && this.user.getId().equals(userId);
+    }
+
     public boolean isBlocked() {
         return CardStatus.BLOCKED.equals(this.status);
     }
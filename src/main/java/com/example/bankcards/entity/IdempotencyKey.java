@@ -0,0 +1,33 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id", updatable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", updatable = false)
+    private String key;
+
+    @Column(name = "request_hash", updatable = false)
+    private String requestHash;
+
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+}
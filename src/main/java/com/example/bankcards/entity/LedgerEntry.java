@@ -0,0 +1,39 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "ledger_entries")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "from_card_id", updatable = false)
+    private UUID fromCardId;
+
+    @Column(name = "to_card_id", updatable = false)
+    private UUID toCardId;
+
+    @Column(name = "amount", updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "applied_at", updatable = false)
+    private Instant appliedAt;
+}
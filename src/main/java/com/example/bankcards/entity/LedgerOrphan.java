@@ -0,0 +1,22 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "ledger_orphans")
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerOrphan {
+
+    @Id
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @Column(name = "detected_at", updatable = false)
+    private Instant detectedAt;
+}
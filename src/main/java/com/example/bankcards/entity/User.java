@@ -31,6 +31,10 @@ public class User {
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     public User(long id, String email, Role role) {
         this.id = id;
         this.email = email;
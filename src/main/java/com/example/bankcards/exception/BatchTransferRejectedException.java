@@ -0,0 +1,14 @@
+package com.example.bankcards.exception;
+
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import lombok.Getter;
+
+@Getter
+public class BatchTransferRejectedException extends RuntimeException {
+    private final BatchTransferResponse response;
+
+    public BatchTransferRejectedException(BatchTransferResponse response) {
+        super("Batch transfer was rolled back");
+        this.response = response;
+    }
+}
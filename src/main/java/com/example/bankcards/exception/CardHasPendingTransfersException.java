@@ -0,0 +1,4 @@
+package com.example.bankcards.exception;
+
+public class CardHasPendingTransfersException extends RuntimeException {
+}
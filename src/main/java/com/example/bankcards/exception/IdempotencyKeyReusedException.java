@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used with a different request");
+    }
+}
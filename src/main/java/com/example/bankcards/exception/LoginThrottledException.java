@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class LoginThrottledException extends RuntimeException {
+    public LoginThrottledException() {
+        super("Too many concurrent login attempts, please retry later");
+    }
+}
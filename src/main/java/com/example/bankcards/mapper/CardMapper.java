@@ -14,5 +14,6 @@ public interface CardMapper {
     Card toEntity(CreateCardRequest request);
 
     @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "number", source = "numberLast4")
     CardDto toDto(Card card);
 }
@@ -4,6 +4,7 @@ import com.example.bankcards.dto.user.RegisterUserRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
 import com.example.bankcards.dto.user.UserDto;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserSnapshot;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingTarget;
 
@@ -11,6 +12,8 @@ import org.mapstruct.MappingTarget;
 public interface UserMapper {
     UserDto toDto(User user);
 
+    UserDto toDto(UserSnapshot user);
+
     User toEntity(RegisterUserRequest request);
 
     void update(UpdateUserRequest request, @MappingTarget User user);
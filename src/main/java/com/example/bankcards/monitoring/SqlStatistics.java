@@ -0,0 +1,56 @@
+package com.example.bankcards.monitoring;
+
+public final class SqlStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics previous;
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+
+    private SqlStatistics(SqlStatistics previous) {
+        this.previous = previous;
+    }
+
+    public static SqlStatistics start() {
+        var statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void recordStatement(long elapsedMillis, long affectedRows) {
+        for (var statistics = CURRENT.get(); statistics != null; statistics = statistics.previous) {
+            statistics.statements++;
+            statistics.elapsedMillis += elapsedMillis;
+            statistics.rows += affectedRows;
+        }
+    }
+
+    static void recordRow() {
+        for (var statistics = CURRENT.get(); statistics != null; statistics = statistics.previous) {
+            statistics.rows++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bankcards.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.Arrays;
+
+@Component
+@ConditionalOnProperty(prefix = "spring.sql-metrics", name = "enabled", matchIfMissing = true)
+public class SqlStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .afterQuery((execution, queries) -> SqlStatistics.recordStatement(
+                        execution.getElapsedTime(), affectedRows(execution)))
+                .proxyResultSet()
+                .afterMethod(SqlStatisticsDataSourcePostProcessor::countFetchedRow)
+                .build();
+    }
+
+    private static long affectedRows(ExecutionInfo execution) {
+        if (execution.getResult() instanceof Number count) {
+            return Math.max(count.longValue(), 0);
+        }
+        if (execution.getResult() instanceof int[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        if (execution.getResult() instanceof long[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        return 0;
+    }
+
+    private static void countFetchedRow(MethodExecutionContext context) {
+        if (context.getTarget() instanceof ResultSet
+                && "next".equals(context.getMethod().getName())
+                && Boolean.TRUE.equals(context.getResult())) {
+            SqlStatistics.recordRow();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bankcards.monitoring;
+
+import com.example.bankcards.config.SqlMetricsConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "spring.sql-metrics", name = "enabled", matchIfMissing = true)
+@AllArgsConstructor
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final SqlMetricsConfig config;
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try (var statistics = SqlStatistics.start()) {
+            var wrapped = config.isExposeHeaders() ? new StatisticsHeaderResponse(response, statistics) : response;
+            filterChain.doFilter(request, wrapped);
+
+            if (wrapped instanceof StatisticsHeaderResponse headerResponse) {
+                headerResponse.writeHeaders();
+            }
+            if (!request.isAsyncStarted()) {
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("JDBC statements executed while handling a request")
+                .tags(tags)
+                .register(registry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .description("Rows fetched or modified while handling a request")
+                .tags(tags)
+                .register(registry)
+                .record(statistics.getRows());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing JDBC statements while handling a request")
+                .tags(tags)
+                .register(registry)
+                .record(Duration.ofMillis(statistics.getElapsedMillis()));
+    }
+
+    private static final class StatisticsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatistics statistics;
+        private boolean headersWritten;
+
+        private StatisticsHeaderResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        private void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            setHeader(TIME_HEADER, String.valueOf(statistics.getElapsedMillis()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.monitoring;
+
+import com.example.bankcards.config.VirtualThreadsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream;
+    private final MeterRegistry registry;
+
+    public VirtualThreadPinningMonitor(VirtualThreadsConfig config, MeterRegistry registry) {
+        this.registry = registry;
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(config.getPinnedThreshold())
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    private void record(RecordedEvent event) {
+        Timer.builder("jvm.threads.virtual.pinned")
+                .tag("frame", pinningFrame(event))
+                .register(registry)
+                .record(event.getDuration());
+    }
+
+    private static String pinningFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                .findFirst()
+                .orElse("unknown");
+    }
+
+    @Override
+    public void destroy() {
+        stream.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface CardAmount {
+    UUID getCardId();
+
+    BigDecimal getAmount();
+}
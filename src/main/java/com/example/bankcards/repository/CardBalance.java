@@ -0,0 +1,17 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record CardBalance(UUID cardId, Long ownerId, BigDecimal balance, Long version) {
+
+    public static CardBalance of(Card card) {
+        return new CardBalance(card.getId(), card.getUser().getId(), card.getBalance(), card.getVersion());
+    }
+
+    public CardBalance newest(CardBalance other) {
+        return other.version() >= version ? other : this;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@Repository
+@Timed("card.batch.queries")
+@AllArgsConstructor
+public class CardBatchRepository {
+
+    private static final String INSERT = """
+            insert into cards (id, number_encrypted, number_hash, number_last4, user_id, expiration_date, status,
+                               balance, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Card> insertAll(List<Card> cards, int batchSize) {
+        var counts = Arrays.stream(jdbcTemplate.batchUpdate(INSERT, cards, batchSize, (statement, card) -> {
+            statement.setObject(1, card.getId());
+            statement.setString(2, card.getNumberEncrypted());
+            statement.setString(3, card.getNumberHash());
+            statement.setString(4, card.getNumberLast4());
+            statement.setLong(5, card.getUser().getId());
+            statement.setObject(6, card.getExpirationDate());
+            statement.setString(7, card.getStatus().name());
+            statement.setBigDecimal(8, card.getBalance());
+            statement.setLong(9, card.getVersion());
+        })).flatMapToInt(Arrays::stream).toArray();
+
+        if (Arrays.stream(counts).allMatch(count -> count == 0 || count == 1)) {
+            return IntStream.range(0, cards.size())
+                    .filter(i -> counts[i] == 1)
+                    .mapToObj(cards::get)
+                    .toList();
+        }
+
+        var inserted = findExistingIds(cards.stream().map(Card::getId).toList(), batchSize);
+        return cards.stream().filter(card -> inserted.contains(card.getId())).toList();
+    }
+
+    private Set<UUID> findExistingIds(List<UUID> ids, int batchSize) {
+        var existing = new HashSet<UUID>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            var chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            var placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList("select id from cards where id in (" + placeholders + ")",
+                    UUID.class, chunk.toArray()));
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.entity.CardStatus;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+@Timed("card.listing.queries")
+@AllArgsConstructor
+public class CardListingRepository {
+
+    private static final String COLUMNS = "select id, user_id, number_last4, expiration_date, status, balance, version from cards";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "expirationDate", "expiration_date",
+            "balance", "balance",
+            "status", "status"
+    );
+
+    private static final RowMapper<CardDto> CARD_ROW = (resultSet, rowNum) -> mapRow(resultSet);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<CardDto> findFirst(int limit) {
+        return jdbcTemplate.query(COLUMNS + " order by id limit ?", CARD_ROW, limit);
+    }
+
+    public List<CardDto> findAfter(UUID cursor, int limit) {
+        return jdbcTemplate.query(COLUMNS + " where id > ? order by id limit ?", CARD_ROW, cursor, limit);
+    }
+
+    public List<CardDto> findUserCards(Long userId, Sort.Order order, Object afterValue, UUID afterId, int limit) {
+        var column = SORT_COLUMNS.get(order.getProperty());
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        }
+
+        var direction = order.isAscending() ? " asc" : " desc";
+        var orderBy = " order by " + column + direction + ", id" + direction + " limit ?";
+        if (afterId == null) {
+            return jdbcTemplate.query(COLUMNS + " where user_id = ?" + orderBy, CARD_ROW, userId, limit);
+        }
+
+        var comparison = order.isAscending() ? " > " : " < ";
+        return jdbcTemplate.query(COLUMNS + " where user_id = ? and (" + column + ", id)" + comparison + "(?, ?)" + orderBy,
+                CARD_ROW, userId, afterValue, afterId, limit);
+    }
+
+    public void streamAll(int fetchSize, Consumer<CardDto> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(
+                            COLUMNS + " order by id",
+                            ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY
+                    );
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (RowCallbackHandler) resultSet -> consumer.accept(mapRow(resultSet))
+        );
+    }
+
+    public void streamNumberHashes(int fetchSize, Consumer<String> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(
+                            "select number_hash from cards where number_hash is not null",
+                            ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY
+                    );
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getString("number_hash"))
+        );
+    }
+
+    private static CardDto mapRow(ResultSet resultSet) throws SQLException {
+        return CardDto.builder()
+                .id(resultSet.getObject("id", UUID.class))
+                .userId(resultSet.getObject("user_id", Long.class))
+                .number(resultSet.getString("number_last4"))
+                .expirationDate(resultSet.getObject("expiration_date", LocalDate.class))
+                .status(CardStatus.valueOf(resultSet.getString("status")))
+                .balance(resultSet.getBigDecimal("balance"))
+                .version(resultSet.getObject("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CardLockingRepository {
+
+    Optional<Card> findByIdForUpdate(UUID id);
+
+    List<Card> findAllByIdForUpdate(Collection<UUID> ids);
+
+    List<Card> findAllByIdAndUserIdForUpdate(Collection<UUID> ids, Long userId);
+}
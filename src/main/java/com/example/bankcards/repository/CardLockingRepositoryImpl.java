@@ -0,0 +1,54 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.entity.Card;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import lombok.AllArgsConstructor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@AllArgsConstructor
+public class CardLockingRepositoryImpl implements CardLockingRepository {
+
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+    private static final String QUERY_TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
+    private final EntityManager entityManager;
+    private final TransferConfig transferConfig;
+
+    @Override
+    public Optional<Card> findByIdForUpdate(UUID id) {
+        return forUpdate(entityManager.createQuery("select c from Card c where c.id = :id", Card.class))
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Card> findAllByIdForUpdate(Collection<UUID> ids) {
+        return forUpdate(entityManager.createQuery("select c from Card c where c.id in :ids order by c.id", Card.class))
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public List<Card> findAllByIdAndUserIdForUpdate(Collection<UUID> ids, Long userId) {
+        return forUpdate(entityManager.createQuery(
+                "select c from Card c where c.id in :ids and c.user.id = :userId order by c.id", Card.class))
+                .setParameter("ids", ids)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    private <T> TypedQuery<T> forUpdate(TypedQuery<T> query) {
+        var timeout = Math.toIntExact(transferConfig.getLockTimeout().toMillis());
+        return query.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT_HINT, timeout)
+                .setHint(QUERY_TIMEOUT_HINT, timeout);
+    }
+}
@@ -1,12 +1,89 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.card.CardDto;
 import com.example.bankcards.entity.Card;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import com.example.bankcards.entity.CardStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
-public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificationExecutor<Card> {
+public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificationExecutor<Card>,
+        CardLockingRepository {
 
-    boolean existsByNumber(String number);
+    boolean existsByNumberHash(String numberHash);
+
+    @Query("select c.numberHash from Card c where c.numberHash in :hashes")
+    Set<String> findExistingNumberHashes(@Param("hashes") Collection<String> hashes);
+
+    @Query("""
+            select new com.example.bankcards.dto.card.CardDto(
+                c.id, c.user.id, c.numberLast4, c.expirationDate, c.status, c.balance, c.version)
+            from Card c
+            where c.id = :id
+            """)
+    Optional<CardDto> findDtoById(@Param("id") UUID id);
+
+    @Query(value = """
+            select new com.example.bankcards.dto.card.CardDto(
+                c.id, c.user.id, c.numberLast4, c.expirationDate, c.status, c.balance, c.version)
+            from Card c
+            where c.user.id = :userId
+            """,
+            countQuery = "select count(c) from Card c where c.user.id = :userId")
+    Page<CardDto> findDtosByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            select new com.example.bankcards.repository.CardVersion(c.id, c.user.id, c.version)
+            from Card c
+            where c.id = :id
+            """)
+    Optional<CardVersion> findVersionById(@Param("id") UUID id);
+
+    @Query(value = """
+            select new com.example.bankcards.repository.CardVersion(c.id, c.user.id, c.version)
+            from Card c
+            where c.user.id = :userId
+            """,
+            countQuery = "select count(c) from Card c where c.user.id = :userId")
+    Page<CardVersion> findVersionsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            select new com.example.bankcards.repository.CardBalance(c.id, c.user.id, c.balance, c.version)
+            from Card c
+            where c.id = :id
+            """)
+    Optional<CardBalance> findBalanceById(@Param("id") UUID id);
+
+
+    @Query("select c.id as cardId, c.balance as amount from Card c")
+    List<CardAmount> findAllBalances();
+
+    @Modifying
+    @Query("update Card c set c.balance = c.balance + :delta, c.version = c.version + 1 where c.id = :id")
+    int applyBalanceDelta(@Param("id") UUID id, @Param("delta") BigDecimal delta);
+
+    @Modifying
+    @Query("""
+            update Card c
+            set c.balance = case when c.id = :fromId then c.balance - :amount else c.balance + :amount end,
+                c.version = c.version + 1
+            where c.id in (:fromId, :toId)
+              and c.status <> :blocked
+              and (:admin = true or c.user.id = :userId)
+              and (c.id <> :fromId or c.balance >= :amount)
+            """)
+    int transferBalance(@Param("fromId") UUID fromId,
+                        @Param("toId") UUID toId,
+                        @Param("amount") BigDecimal amount,
+                        @Param("userId") Long userId,
+                        @Param("admin") boolean admin,
+                        @Param("blocked") CardStatus blocked);
 }
@@ -0,0 +1,6 @@
+package com.example.bankcards.repository;
+
+import java.util.UUID;
+
+public record CardVersion(UUID cardId, Long ownerId, Long version) {
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    @Query("select k.requestHash from IdempotencyKey k where k.userId = :userId and k.key = :key")
+    Optional<String> findRequestHash(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query(value = """
+            insert into idempotency_keys (user_id, idempotency_key, request_hash, created_at)
+            values (:userId, :key, :requestHash, :createdAt)
+            """, nativeQuery = true)
+    int insertKey(@Param("userId") Long userId,
+                  @Param("key") String key,
+                  @Param("requestHash") String requestHash,
+                  @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") Instant threshold);
+}
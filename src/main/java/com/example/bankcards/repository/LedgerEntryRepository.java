@@ -0,0 +1,118 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Query("""
+            select e.id from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+            order by e.id
+            """)
+    List<Long> findPendingIds(Limit limit);
+
+    @Query("""
+            select count(e) from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and e.id <= :maxId
+            """)
+    long countPending(@Param("maxId") Long maxId);
+
+    @Query("""
+            select e.toCardId as cardId, sum(e.amount) as amount
+            from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and e.id <= :maxId
+            group by e.toCardId
+            """)
+    List<CardAmount> sumPendingCredits(@Param("maxId") Long maxId);
+
+    @Query("""
+            select e.fromCardId as cardId, sum(e.amount) as amount
+            from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and e.id <= :maxId
+              and e.fromCardId is not null
+            group by e.fromCardId
+            """)
+    List<CardAmount> sumPendingDebits(@Param("maxId") Long maxId);
+
+    @Modifying
+    @Query("""
+            insert into LedgerOrphan (entryId, detectedAt)
+            select e.id, :detectedAt from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and e.id <= :maxId
+              and (not exists (select c.id from Card c where c.id = e.toCardId)
+                   or (e.fromCardId is not null and not exists (select c.id from Card c where c.id = e.fromCardId)))
+            """)
+    int markOrphaned(@Param("maxId") Long maxId, @Param("detectedAt") Instant detectedAt);
+
+    @Modifying
+    @Query("""
+            insert into LedgerApplication (entryId, appliedAt)
+            select e.id, :appliedAt from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and e.id <= :maxId
+            """)
+    int markApplied(@Param("maxId") Long maxId, @Param("appliedAt") Instant appliedAt);
+
+    @Query("""
+            select coalesce(sum(case when e.toCardId = :cardId then e.amount else -e.amount end), 0)
+            from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and (e.fromCardId = :cardId or e.toCardId = :cardId)
+            """)
+    BigDecimal sumPendingDelta(@Param("cardId") UUID cardId);
+
+    @Query("""
+            select count(e) > 0
+            from LedgerEntry e
+            where e.appliedAt is null and not exists (select a.entryId from LedgerApplication a where a.entryId = e.id)
+              and not exists (select o.entryId from LedgerOrphan o where o.entryId = e.id)
+              and (e.fromCardId = :cardId or e.toCardId = :cardId)
+            """)
+    boolean existsPending(@Param("cardId") UUID cardId);
+
+    @Query("""
+            select coalesce(sum(case when e.toCardId = :cardId then e.amount else -e.amount end), 0)
+            from LedgerEntry e
+            where (e.appliedAt is not null or exists (select a.entryId from LedgerApplication a where a.entryId = e.id))
+              and (e.fromCardId = :cardId or e.toCardId = :cardId)
+            """)
+    BigDecimal sumAppliedBalance(@Param("cardId") UUID cardId);
+
+    @Query("""
+            select e.toCardId as cardId, sum(e.amount) as amount
+            from LedgerEntry e
+            where (e.appliedAt is not null or exists (select a.entryId from LedgerApplication a where a.entryId = e.id))
+            group by e.toCardId
+            """)
+    List<CardAmount> sumAppliedCredits();
+
+    @Query("""
+            select e.fromCardId as cardId, sum(e.amount) as amount
+            from LedgerEntry e
+            where (e.appliedAt is not null or exists (select a.entryId from LedgerApplication a where a.entryId = e.id))
+              and e.fromCardId is not null
+            group by e.fromCardId
+            """)
+    List<CardAmount> sumAppliedDebits();
+}
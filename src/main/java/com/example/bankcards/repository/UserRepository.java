@@ -2,12 +2,36 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("""
+            select new com.example.bankcards.repository.UserSnapshot(u.id, u.email, u.name, u.role, u.version)
+            from User u
+            where u.id = :id
+            """)
+    Optional<UserSnapshot> findSnapshotById(@Param("id") Long id);
+
+    @Query("""
+            select new com.example.bankcards.repository.UserSnapshot(u.id, u.email, u.name, u.role, u.version)
+            from User u
+            where u.email = :email
+            """)
+    Optional<UserSnapshot> findSnapshotByEmail(@Param("email") String email);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,11 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+
+public record UserSnapshot(Long id, String email, String name, Role role, Long version) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getName(), user.getRole(), user.getVersion());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+
+public record AuthenticatedUser(Long id, String email, String name, Role role) {
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getRole());
+    }
+
+    public boolean isAdmin() {
+        return Role.ADMIN.equals(role);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.CardEncryptionConfig;
+import com.example.bankcards.entity.Card;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+@Component
+public class CardNumberCipher {
+
+    public static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    public static final String HASH_ALGORITHM = "HmacSHA256";
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final SecretKey key;
+    private final SecretKey hashKey;
+    private final Queue<Cipher> ciphers;
+    private final Queue<Mac> macs;
+    private final SecureRandom random = new SecureRandom();
+
+    public CardNumberCipher(CardEncryptionConfig config) {
+        this.key = config.getSecretKey();
+        this.hashKey = config.getHashSecretKey();
+        this.ciphers = new ArrayBlockingQueue<>(config.getPoolSize());
+        this.macs = new ArrayBlockingQueue<>(config.getPoolSize());
+    }
+
+    public void protect(Card card) {
+        var number = card.getNumber();
+        card.setNumberEncrypted(encrypt(number));
+        card.setNumberHash(hash(number));
+        card.setNumberLast4(number.substring(number.length() - 4));
+    }
+
+    public String encrypt(String number) {
+        var iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        var plain = number.getBytes(StandardCharsets.US_ASCII);
+
+        var cipher = borrow(ciphers, CardNumberCipher::newCipher);
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            var encrypted = Arrays.copyOf(iv, IV_LENGTH + cipher.getOutputSize(plain.length));
+            cipher.doFinal(plain, 0, plain.length, encrypted, IV_LENGTH);
+            return Base64.getEncoder().encodeToString(encrypted);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Card number encryption failed", e);
+        } finally {
+            ciphers.offer(cipher);
+        }
+    }
+
+    public String decrypt(String encrypted) {
+        var bytes = Base64.getDecoder().decode(encrypted);
+
+        var cipher = borrow(ciphers, CardNumberCipher::newCipher);
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_LENGTH));
+            var plain = cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH);
+            return new String(plain, StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Card number decryption failed", e);
+        } finally {
+            ciphers.offer(cipher);
+        }
+    }
+
+    public String hash(String number) {
+        var mac = borrow(macs, () -> newMac(hashKey));
+        try {
+            return HEX.formatHex(mac.doFinal(number.getBytes(StandardCharsets.US_ASCII)));
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private static <T> T borrow(Queue<T> pool, Supplier<T> factory) {
+        var instance = pool.poll();
+        return instance != null ? instance : factory.get();
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+        }
+    }
+
+    private static Mac newMac(SecretKey hashKey) {
+        try {
+            var mac = Mac.getInstance(HASH_ALGORITHM);
+            mac.init(hashKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+}
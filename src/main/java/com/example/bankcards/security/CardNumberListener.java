@@ -0,0 +1,18 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Card;
+import jakarta.persistence.PrePersist;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class CardNumberListener {
+
+    private final CardNumberCipher cipher;
+
+    @PrePersist
+    public void protect(Card card) {
+        if (card.getNumber() != null && card.getNumberHash() == null) {
+            cipher.protect(card);
+        }
+    }
+}
@@ -12,11 +12,15 @@ public class CardSecurityRules implements SecurityRules {
     @Override
     public void configure(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry registry) {
         registry
-                .requestMatchers(HttpMethod.GET, "api/cards").hasRole(Role.ADMIN.name())
+                .requestMatchers(HttpMethod.GET, "/api/cards").hasRole(Role.ADMIN.name())
+                .requestMatchers(HttpMethod.GET, "/api/cards/export").hasRole(Role.ADMIN.name())
                 .requestMatchers(HttpMethod.GET, "/api/cards/**").hasAnyRole(Role.ADMIN.name(), Role.USER.name())
                 .requestMatchers(HttpMethod.POST, "/api/cards").hasRole(Role.ADMIN.name())
+                .requestMatchers(HttpMethod.POST, "/api/cards/bulk").hasRole(Role.ADMIN.name())
+                .requestMatchers(HttpMethod.POST, "/api/cards/ledger/rebuild").hasRole(Role.ADMIN.name())
                 .requestMatchers(HttpMethod.POST, "/api/cards/block/").hasRole(Role.USER.name())
                 .requestMatchers(HttpMethod.POST, "/api/cards/transfer").hasRole(Role.USER.name())
+                .requestMatchers(HttpMethod.POST, "/api/cards/transfer/batch").hasRole(Role.USER.name())
                 .requestMatchers(HttpMethod.PATCH, "/api/cards/**").hasRole(Role.ADMIN.name())
                 .requestMatchers(HttpMethod.DELETE, "/api/cards/**").hasRole(Role.ADMIN.name());
     }
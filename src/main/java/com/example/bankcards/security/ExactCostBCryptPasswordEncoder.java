@@ -0,0 +1,30 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Pattern;
+
+public class ExactCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public ExactCostBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+
+        var matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return super.upgradeEncoding(encodedPassword);
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
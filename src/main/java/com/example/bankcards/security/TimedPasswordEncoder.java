@@ -0,0 +1,39 @@
+package com.example.bankcards.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("password.encoder")
+                .description("Password hashing and verification time")
+                .tag("operation", "encode")
+                .register(registry);
+        this.matchesTimer = Timer.builder("password.encoder")
+                .description("Password hashing and verification time")
+                .tag("operation", "matches")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+public record VerifiedToken(AuthenticatedUser principal, Instant expiresAt, List<GrantedAuthority> authorities) {
+
+    public VerifiedToken(AuthenticatedUser principal, Instant expiresAt) {
+        this(principal, expiresAt, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
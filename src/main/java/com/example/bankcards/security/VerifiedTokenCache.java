@@ -0,0 +1,107 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.service.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final JwtConfig.TokenCache config;
+    private final Cache<String, VerifiedToken> cache;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public VerifiedTokenCache(JwtService jwtService, JwtConfig jwtConfig, MeterRegistry registry) {
+        this.jwtService = jwtService;
+        this.config = jwtConfig.getTokenCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new TokenExpiry(config.getMaxTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified-tokens");
+        this.validTimer = verificationTimer(registry, "valid");
+        this.invalidTimer = verificationTimer(registry, "invalid");
+    }
+
+    public VerifiedToken verify(String token) {
+        if (!config.isEnabled()) {
+            return parse(token);
+        }
+
+        var digest = digest(token);
+        var cached = cache.getIfPresent(digest);
+        if (cached != null) {
+            return cached.isExpired(Instant.now()) ? null : cached;
+        }
+
+        var verified = parse(token);
+        if (verified != null) {
+            cache.put(digest, verified);
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        var start = System.nanoTime();
+        var jwt = jwtService.parseToken(token);
+        if (jwt == null || jwt.isExpired()) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        var principal = new AuthenticatedUser(jwt.getUserId(), jwt.getEmail(), jwt.getName(), jwt.getRole());
+        return new VerifiedToken(principal, jwt.getExpiresAt());
+    }
+
+    private static Timer verificationTimer(MeterRegistry registry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("JWT signature verification and parsing time on cache misses")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static String digest(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            var untilExpiry = Duration.between(Instant.now(), token.expiresAt());
+            return untilExpiry.compareTo(maxTtl) < 0 ? Math.max(untilExpiry.toNanos(), 0) : maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
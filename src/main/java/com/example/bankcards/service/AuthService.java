@@ -3,8 +3,7 @@ package com.example.bankcards.service;
 import com.example.bankcards.config.Jwt;
 import com.example.bankcards.dto.auth.LoginRequest;
 import com.example.bankcards.dto.auth.LoginResponse;
-import com.example.bankcards.entity.User;
-import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -12,19 +11,28 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @AllArgsConstructor
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
-    private final UserRepository repository;
+    private final UserLookup userLookup;
     private final JwtService jwtService;
+    private final LoginExecutor loginExecutor;
 
-    public User getCurrentUser() {
+    public AuthenticatedUser getCurrentPrincipal() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
-        var userId = (Long) authentication.getPrincipal();
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    public Long getCurrentUserId() {
+        return getCurrentPrincipal().id();
+    }
 
-        return repository.findById(userId).orElse(null);
+    public CompletableFuture<LoginResponse> loginAsync(LoginRequest request) {
+        return loginExecutor.submit(() -> login(request));
     }
 
     public LoginResponse login(LoginRequest request) {
@@ -35,7 +43,7 @@ public class AuthService {
                 )
         );
 
-        var user = repository.findByEmail(request.getEmail()).orElseThrow();
+        var user = userLookup.findByEmail(request.getEmail()).orElseThrow();
         var accessToken = jwtService.generateAccessToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
 
@@ -48,7 +56,7 @@ public class AuthService {
             throw new BadCredentialsException("Invalid refresh token");
         }
 
-        var user = repository.findById(jwt.getUserId()).orElseThrow();
+        var user = userLookup.findById(jwt.getUserId()).orElseThrow();
         return jwtService.generateAccessToken(user);
     }
 }
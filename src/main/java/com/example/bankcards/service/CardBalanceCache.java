@@ -0,0 +1,69 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.BalanceCacheConfig;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.CardBalance;
+import com.example.bankcards.repository.CardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class CardBalanceCache {
+
+    private final CardRepository repository;
+    private final BalanceCacheConfig config;
+    private final Cache<UUID, CardBalance> cache;
+
+    public CardBalanceCache(CardRepository repository, BalanceCacheConfig config, MeterRegistry registry) {
+        this.repository = repository;
+        this.config = config;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "card.balances");
+    }
+
+    public Optional<CardBalance> find(UUID cardId) {
+        if (!config.isEnabled()) {
+            return repository.findBalanceById(cardId);
+        }
+        return Optional.ofNullable(cache.get(cardId, id -> repository.findBalanceById(id).orElse(null)));
+    }
+
+    public void putAfterCommit(Collection<Card> cards) {
+        var balances = List.copyOf(cards);
+        afterCommit(() -> balances.forEach(card ->
+                cache.asMap().merge(card.getId(), CardBalance.of(card), CardBalance::newest)));
+    }
+
+    public void evictAfterCommit(Collection<UUID> cardIds) {
+        var ids = List.copyOf(cardIds);
+        afterCommit(() -> cache.invalidateAll(ids));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+record CardCursor(Sort.Order order, Object value, UUID id) {
+
+    static final String DEFAULT_SORT_FIELD = "expirationDate";
+
+    private static final Map<String, Function<String, Object>> SORT_KEYS = Map.of(
+            "expirationDate", LocalDate::parse,
+            "balance", BigDecimal::new,
+            "status", value -> CardStatus.valueOf(value).name()
+    );
+
+    private static final Map<String, Function<CardDto, Object>> SORT_VALUES = Map.of(
+            "expirationDate", CardDto::getExpirationDate,
+            "balance", CardDto::getBalance,
+            "status", card -> card.getStatus().name()
+    );
+
+    static CardCursor first(Sort sort) {
+        var order = sort.stream()
+                .filter(o -> SORT_KEYS.containsKey(o.getProperty()))
+                .findFirst()
+                .orElse(Sort.Order.asc(DEFAULT_SORT_FIELD));
+        return new CardCursor(order, null, null);
+    }
+
+    static CardCursor decode(String cursor) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+            var parser = SORT_KEYS.get(parts[0]);
+            if (parts.length != 4 || parser == null) {
+                throw new InvalidCursorException();
+            }
+
+            var order = new Sort.Order(Sort.Direction.valueOf(parts[1]), parts[0]);
+            return new CardCursor(order, parser.apply(parts[2]), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    String next(CardDto last) {
+        var raw = String.join(",",
+                order.getProperty(),
+                order.getDirection().name(),
+                String.valueOf(SORT_VALUES.get(order.getProperty()).apply(last)),
+                String.valueOf(last.getId())
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardIssuanceConfig;
+import com.example.bankcards.dto.card.*;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardBatchRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CardNumberCipher;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+public class CardIssuanceService {
+
+    private static final String ALREADY_REGISTERED = "Card number is already registered.";
+
+    private final CardRepository cardRepository;
+    private final CardBatchRepository cardBatchRepository;
+    private final UserRepository userRepository;
+    private final CardMapper mapper;
+    private final LedgerService ledgerService;
+    private final CardNumberFilter numberFilter;
+    private final CardNumberCipher cipher;
+    private final CardIssuanceConfig config;
+
+    @Transactional
+    public BulkCreateCardResponse createCards(BulkCreateCardRequest request) {
+        var requests = request.getCards();
+        var candidates = requests.stream().map(this::toCard).toList();
+        var takenHashes = new HashSet<>(numberFilter.findExisting(
+                candidates.stream().map(Card::getNumberHash).toList(),
+                cardRepository::findExistingNumberHashes));
+        var userIds = userRepository.findExistingIds(
+                requests.stream().map(CreateCardRequest::getUserId).toList());
+
+        var cards = new ArrayList<Card>(requests.size());
+        var results = new ArrayList<CardIssueResult>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            var userId = requests.get(i).getUserId();
+            var card = candidates.get(i);
+            if (!userIds.contains(userId)) {
+                results.add(new CardIssueResult(i, CardIssueStatus.FAILED, null, "User not found"));
+            } else if (!takenHashes.add(card.getNumberHash())) {
+                results.add(new CardIssueResult(i, CardIssueStatus.FAILED, null, ALREADY_REGISTERED));
+            } else {
+                card.setUser(userRepository.getReferenceById(userId));
+                cards.add(card);
+                results.add(new CardIssueResult(i, CardIssueStatus.CREATED, card.getId(), null));
+            }
+        }
+
+        var inserted = cardBatchRepository.insertAll(cards, config.getBatchSize());
+        if (inserted.size() < cards.size()) {
+            var insertedIds = inserted.stream().map(Card::getId).collect(Collectors.toSet());
+            results.replaceAll(result -> result.getCardId() == null || insertedIds.contains(result.getCardId())
+                    ? result
+                    : new CardIssueResult(result.getIndex(), CardIssueStatus.FAILED, null, ALREADY_REGISTERED));
+        }
+        ledgerService.recordOpenings(inserted);
+        numberFilter.addAfterCommit(inserted.stream().map(Card::getNumberHash).toList());
+
+        return new BulkCreateCardResponse(inserted.size(), results);
+    }
+
+    private Card toCard(CreateCardRequest request) {
+        var card = mapper.toEntity(request);
+        card.setId(UUID.randomUUID());
+        card.setVersion(0L);
+        cipher.protect(card);
+        return card;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardListingConfig;
+import com.example.bankcards.dto.card.CardCursorPage;
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.repository.CardListingRepository;
+import com.example.bankcards.util.CardNumberCodec;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Service
+@AllArgsConstructor
+public class CardListingService {
+
+    private final CardListingRepository repository;
+    private final AuthService authService;
+    private final CardNumberCodec codec;
+    private final CardListingConfig config;
+
+    @Transactional(readOnly = true)
+    public CardCursorPage getCards(UUID cursor, Integer size) {
+        var limit = pageSize(size);
+        var cards = cursor == null
+                ? repository.findFirst(limit + 1)
+                : repository.findAfter(cursor, limit + 1);
+
+        var hasMore = cards.size() > limit;
+        var items = hasMore ? cards.subList(0, limit) : cards;
+        items.forEach(this::mask);
+
+        var nextCursor = hasMore ? items.get(limit - 1).getId().toString() : null;
+        return new CardCursorPage(List.copyOf(items), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CardCursorPage scrollUserCards(Sort sort, Integer size, String cursor) {
+        var principal = authService.getCurrentPrincipal();
+        var position = cursor == null ? CardCursor.first(sort) : CardCursor.decode(cursor);
+        var limit = pageSize(size);
+
+        var cards = repository.findUserCards(principal.id(), position.order(), position.value(), position.id(), limit + 1);
+
+        var hasMore = cards.size() > limit;
+        var items = hasMore ? cards.subList(0, limit) : cards;
+        items.forEach(this::mask);
+
+        var nextCursor = hasMore ? position.next(items.get(limit - 1)) : null;
+        return new CardCursorPage(List.copyOf(items), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCards(Consumer<CardDto> consumer) {
+        repository.streamAll(config.getExportFetchSize(), card -> {
+            mask(card);
+            consumer.accept(card);
+        });
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return config.getDefaultPageSize();
+        }
+        return Math.max(1, Math.min(size, config.getMaxPageSize()));
+    }
+
+    private void mask(CardDto card) {
+        card.setNumber(codec.mask(card.getNumber()));
+    }
+}
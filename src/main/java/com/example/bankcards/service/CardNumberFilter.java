@@ -0,0 +1,175 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardNumberFilterConfig;
+import com.example.bankcards.repository.CardListingRepository;
+import com.example.bankcards.util.CountingBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Component
+public class CardNumberFilter {
+
+    private final CardListingRepository repository;
+    private final CardNumberFilterConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong elements = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Counter definitelyNew;
+    private final Counter maybeExisting;
+    private final Counter falsePositives;
+    private final Timer loadTimer;
+    private volatile CountingBloomFilter filter;
+    private volatile CountingBloomFilter rebuilding;
+    private volatile boolean ready;
+
+    public CardNumberFilter(CardListingRepository repository, CardNumberFilterConfig config,
+                            PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.repository = repository;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.filter = config.isEnabled() ? newFilter() : null;
+
+        this.definitelyNew = registry.counter("card.number.filter.checks", "result", "definitely_new");
+        this.maybeExisting = registry.counter("card.number.filter.checks", "result", "maybe_existing");
+        this.falsePositives = registry.counter("card.number.filter.false.positives");
+        this.loadTimer = registry.timer("card.number.filter.load");
+        if (filter != null) {
+            Gauge.builder("card.number.filter.memory", this, CardNumberFilter::memoryBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("card.number.filter.elements", elements, AtomicLong::get)
+                    .register(registry);
+            Gauge.builder("card.number.filter.expected.fpp", this, CardNumberFilter::expectedFalsePositiveRate)
+                    .register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (filter == null) {
+            return;
+        }
+        if (config.isAsyncLoad()) {
+            new CustomizableThreadFactory("card-number-filter-").newThread(this::load).start();
+        } else {
+            load();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@cardNumberFilterConfig.rebuildInterval.toMillis()}",
+            initialDelayString = "#{@cardNumberFilterConfig.rebuildInterval.toMillis()}")
+    public void rebuild() {
+        if (filter != null) {
+            load();
+        }
+    }
+
+    private void load() {
+        var fresh = newFilter();
+        var count = new AtomicLong();
+        loadLock.lock();
+        try {
+            rebuilding = fresh;
+            loadTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                    repository.streamNumberHashes(config.getFetchSize(), number -> {
+                        fresh.put(number);
+                        count.incrementAndGet();
+                    })));
+            filter = fresh;
+            elements.set(count.get());
+        } finally {
+            rebuilding = null;
+            loadLock.unlock();
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean exists(String number, Predicate<String> lookup) {
+        return !findExisting(List.of(number), numbers -> lookup.test(number) ? Set.of(number) : Set.of()).isEmpty();
+    }
+
+    public Set<String> findExisting(Collection<String> numbers, Function<Collection<String>, Set<String>> lookup) {
+        if (!ready) {
+            return lookup.apply(numbers);
+        }
+
+        var candidates = numbers.stream().distinct().filter(filter::mightContain).toList();
+        definitelyNew.increment(numbers.size() - candidates.size());
+        maybeExisting.increment(candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        var existing = lookup.apply(candidates);
+        falsePositives.increment(candidates.size() - existing.size());
+        return existing;
+    }
+
+    public void addAfterCommit(Collection<String> numbers) {
+        if (filter == null) {
+            return;
+        }
+
+        var added = List.copyOf(numbers);
+        afterCommit(() -> added.forEach(this::put));
+    }
+
+    private void put(String number) {
+        var current = filter;
+        current.put(number);
+        elements.incrementAndGet();
+        var next = rebuilding;
+        if (next != null && next != current) {
+            next.put(number);
+        }
+    }
+
+    private CountingBloomFilter newFilter() {
+        return new CountingBloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+    }
+
+    private long memoryBytes() {
+        return filter.memoryBytes();
+    }
+
+    private double expectedFalsePositiveRate() {
+        return filter.expectedFalsePositiveRate(elements.get());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
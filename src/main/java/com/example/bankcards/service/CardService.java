@@ -1,84 +1,125 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.config.TransferMode;
 import com.example.bankcards.dto.card.CardDto;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.UpdateCardStatusRequest;
-import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.transfer.*;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
-import com.example.bankcards.exception.CardNotFoundException;
-import com.example.bankcards.exception.DuplicateCardException;
-import com.example.bankcards.exception.IllegalTransferException;
-import com.example.bankcards.exception.NotEnoughFundsException;
+import com.example.bankcards.exception.*;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.util.CardNumberMasker;
-import jakarta.transaction.Transactional;
+import com.example.bankcards.repository.CardVersion;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.CardNumberCipher;
+import com.example.bankcards.util.CardNumberCodec;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import java.math.BigDecimal;
-import java.util.List;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class CardService {
 
+    static final Comparator<UUID> LOCK_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
     private final AuthService authService;
     private final CardRepository repository;
     private final UserService userService;
     private final CardMapper mapper;
-    private final CardNumberMasker masker;
+    private final CardNumberCodec codec;
+    private final TransferConfig transferConfig;
+    private final LedgerService ledgerService;
+    private final IdempotencyService idempotencyService;
+    private final CardBalanceCache balanceCache;
+    private final CardNumberFilter numberFilter;
+    private final CardNumberCipher cipher;
+
+    @Transactional(readOnly = true)
+    public Page<CardDto> getUserCards(Pageable pageable) {
+        var currentUser = authService.getCurrentPrincipal();
 
-    public List<CardDto> getAllCards() {
-        var cards = repository.findAll();
-        return cards.stream().map(this::toMaskedCardDto).toList();
+        return repository.findDtosByUserId(currentUser.id(), pageable)
+                .map(this::maskNumber);
     }
 
-    public Page<CardDto> getUserCards(Pageable pageable) {
-        var currentUser = authService.getCurrentUser();
+    @Transactional(readOnly = true)
+    public String getUserCardsVersion(Pageable pageable) {
+        var currentUser = authService.getCurrentPrincipal();
 
-        Specification<Card> userCardsSpec = (root, query, cb) ->
-                cb.equal(root.get("user").get("id"), currentUser.getId());
+        return pageVersion(repository.findVersionsByUserId(currentUser.id(), pageable),
+                CardVersion::cardId, CardVersion::version);
+    }
 
-        return repository.findAll(userCardsSpec, pageable)
-                .map(this::toMaskedCardDto);
+    public String getPageVersion(Page<CardDto> page) {
+        return pageVersion(page, CardDto::getId, CardDto::getVersion);
     }
 
+    @Transactional(readOnly = true)
     public CardDto getCardDto(UUID id) {
-        var card = findCardById(id);
-        validateCardAccess(card);
+        var card = repository.findDtoById(id).orElseThrow(CardNotFoundException::new);
+        validateCardAccess(card.getId(), card.getUserId());
 
-        return toMaskedCardDto(card);
+        return maskNumber(card);
+    }
+
+    @Transactional(readOnly = true)
+    public long getCardVersion(UUID id) {
+        var version = repository.findVersionById(id).orElseThrow(CardNotFoundException::new);
+        validateCardAccess(version.cardId(), version.ownerId());
+
+        return version.version();
     }
 
     public BigDecimal getCardBalance(UUID id) {
-        var card = getCardDto(id);
-        return card.getBalance();
+        var balance = balanceCache.find(id).orElseThrow(CardNotFoundException::new);
+        validateCardAccess(balance.cardId(), balance.ownerId());
+
+        return balance.balance();
     }
 
     @Transactional
     public CardDto createCard(CreateCardRequest request) {
-        validateCardNumberUniqueness(request.getNumber());
+        var card = mapper.toEntity(request);
+        cipher.protect(card);
+        validateCardNumberUniqueness(card.getNumberHash());
 
         var user = userService.findUserById(request.getUserId());
-        var card = mapper.toEntity(request);
         card.setUser(user);
 
-        var savedCard = repository.save(card);
+        var savedCard = saveNewCard(card);
+        ledgerService.recordOpening(savedCard);
+        numberFilter.addAfterCommit(List.of(savedCard.getNumberHash()));
 
         return toMaskedCardDto(savedCard);
     }
 
     @Transactional
     public void removeCard(UUID id) {
-        var card = findCardById(id);
+        var card = lockCardById(id);
+        if (ledgerService.hasPending(id)) {
+            throw new CardHasPendingTransfersException();
+        }
         repository.delete(card);
+        balanceCache.evictAfterCommit(List.of(id));
     }
 
     @Transactional
@@ -87,6 +128,7 @@ public class CardService {
         card.setStatus(request.getStatus());
 
         repository.save(card);
+        balanceCache.putAfterCommit(List.of(card));
 
         return toMaskedCardDto(card);
     }
@@ -98,40 +140,229 @@ public class CardService {
 
         card.setStatus(CardStatus.BLOCKED);
         repository.save(card);
+        balanceCache.putAfterCommit(List.of(card));
     }
 
+    @TransferRetryable
     @Transactional
     public void transferFundsBetweenOwnCards(TransferRequest request) {
+        transferFunds(request);
+    }
+
+    @TransferRetryable
+    @Transactional
+    public void transferFundsBetweenOwnCards(TransferRequest request, IdempotentRequest idempotentRequest) {
+        idempotencyService.register(idempotentRequest);
+        transferFunds(request);
+    }
+
+    @Transactional
+    public BatchTransferResponse transferFundsInBatch(BatchTransferRequest request) {
+        var transfers = request.getTransfers();
+        var currentUser = authService.getCurrentPrincipal();
+        var cards = lockBatchCards(transfers, currentUser);
+        var balances = new HashMap<UUID, BigDecimal>();
+        cards.values().forEach(card -> balances.put(card.getId(), availableBalance(card)));
+
+        var results = new ArrayList<TransferResult>(transfers.size());
+        var failed = false;
+        for (int i = 0; i < transfers.size() && !(failed && request.isAllOrNothing()); i++) {
+            try {
+                applyBatchTransfer(transfers.get(i), cards, balances, currentUser);
+                results.add(new TransferResult(i, TransferStatus.COMPLETED, null));
+            } catch (CardNotFoundException | AccessDeniedException | IllegalTransferException |
+                     NotEnoughFundsException e) {
+                failed = true;
+                results.add(new TransferResult(i, TransferStatus.FAILED, describeTransferFailure(e)));
+            }
+        }
+
+        if (failed && request.isAllOrNothing()) {
+            throw new BatchTransferRejectedException(
+                    new BatchTransferResponse(false, rollBackResults(results, transfers.size())));
+        }
+
+        repository.saveAll(cards.values());
+        balanceCache.putAfterCommit(cards.values());
+        return new BatchTransferResponse(true, results);
+    }
+
+    private void transferFunds(TransferRequest request) {
         validateTransferRequest(request);
 
-        var fromCard = findCardById(request.getFromCard());
-        var toCard = findCardById(request.getToCard());
-        validateCardsAccess(fromCard, toCard);
-        validateCardsStatus(fromCard, toCard);
+        if (transferConfig.getMode() == TransferMode.ATOMIC) {
+            executeAtomicTransfer(request);
+            return;
+        }
+        if (transferConfig.getMode() == TransferMode.LEDGER) {
+            executeLedgerTransfer(request);
+            return;
+        }
 
-        executeTransfer(fromCard, toCard, request.getAmount());
+        var cards = findTransferCards(request);
+        validateCardsAccess(cards.from(), cards.to());
+        validateCardsStatus(cards.from(), cards.to());
+
+        executeTransfer(cards.from(), cards.to(), request.getAmount());
     }
 
     private Card findCardById(UUID id) {
         return repository.findById(id).orElseThrow(CardNotFoundException::new);
     }
 
-    private void executeTransfer(Card sourceCard, Card targetCard, BigDecimal amount) {
-        if (!sourceCard.hasSufficientBalance(amount)) {
-            throw new NotEnoughFundsException("Not enough funds on source card for transfer");
+    private Card lockCardById(UUID id) {
+        return repository.findByIdForUpdate(id).orElseThrow(CardNotFoundException::new);
+    }
+
+    private TransferCards findTransferCards(TransferRequest request) {
+        if (transferConfig.getMode() == TransferMode.PESSIMISTIC) {
+            return lockTransferCards(request.getFromCard(), request.getToCard());
+        }
+        return new TransferCards(findCardById(request.getFromCard()), findCardById(request.getToCard()));
+    }
+
+    private TransferCards lockTransferCards(UUID fromId, UUID toId) {
+        if (LOCK_ORDER.compare(fromId, toId) < 0) {
+            var from = lockCardById(fromId);
+            return new TransferCards(from, lockCardById(toId));
         }
+        var to = lockCardById(toId);
+        return new TransferCards(lockCardById(fromId), to);
+    }
+
+    private Map<UUID, Card> lockBatchCards(List<TransferRequest> transfers, AuthenticatedUser currentUser) {
+        var ids = transfers.stream()
+                .flatMap(transfer -> Stream.of(transfer.getFromCard(), transfer.getToCard()))
+                .collect(Collectors.toSet());
+
+        var cards = currentUser.isAdmin()
+                ? repository.findAllByIdForUpdate(ids)
+                : repository.findAllByIdAndUserIdForUpdate(ids, currentUser.id());
+        return cards.stream().collect(Collectors.toMap(Card::getId, Function.identity()));
+    }
+
+    private void applyBatchTransfer(TransferRequest transfer, Map<UUID, Card> cards,
+                                    Map<UUID, BigDecimal> balances, AuthenticatedUser currentUser) {
+        validateTransferRequest(transfer);
+
+        var fromCard = Optional.ofNullable(cards.get(transfer.getFromCard()))
+                .orElseThrow(CardNotFoundException::new);
+        var toCard = Optional.ofNullable(cards.get(transfer.getToCard()))
+                .orElseThrow(CardNotFoundException::new);
+        validateCardAccess(fromCard, currentUser);
+        validateCardAccess(toCard, currentUser);
+        validateCardsStatus(fromCard, toCard);
+        validateSufficientBalance(balances.get(fromCard.getId()), transfer.getAmount());
+
+        balances.merge(fromCard.getId(), transfer.getAmount().negate(), BigDecimal::add);
+        balances.merge(toCard.getId(), transfer.getAmount(), BigDecimal::add);
+        if (transferConfig.getMode() == TransferMode.LEDGER) {
+            ledgerService.recordPending(fromCard.getId(), toCard.getId(), transfer.getAmount());
+            return;
+        }
+
+        fromCard.withdraw(transfer.getAmount());
+        toCard.deposit(transfer.getAmount());
+        ledgerService.recordApplied(fromCard.getId(), toCard.getId(), transfer.getAmount());
+    }
+
+    private BigDecimal availableBalance(Card card) {
+        if (transferConfig.getMode() == TransferMode.LEDGER) {
+            return ledgerService.availableBalance(card);
+        }
+        return card.getBalance();
+    }
+
+    private List<TransferResult> rollBackResults(List<TransferResult> results, int size) {
+        var rolledBack = new ArrayList<TransferResult>(size);
+        for (int i = 0; i < size; i++) {
+            if (i < results.size() && results.get(i).getStatus() == TransferStatus.FAILED) {
+                rolledBack.add(results.get(i));
+            } else {
+                rolledBack.add(new TransferResult(i, TransferStatus.ROLLED_BACK, null));
+            }
+        }
+        return rolledBack;
+    }
+
+    private String describeTransferFailure(RuntimeException e) {
+        if (e instanceof CardNotFoundException) {
+            return "Card not found";
+        }
+        return e.getMessage();
+    }
+
+    private void executeTransfer(Card sourceCard, Card targetCard, BigDecimal amount) {
+        validateSufficientBalance(sourceCard.getBalance(), amount);
         sourceCard.withdraw(amount);
         targetCard.deposit(amount);
 
         repository.saveAll(List.of(sourceCard, targetCard));
+        ledgerService.recordApplied(sourceCard.getId(), targetCard.getId(), amount);
+        balanceCache.putAfterCommit(List.of(sourceCard, targetCard));
+    }
+
+    private void executeLedgerTransfer(TransferRequest request) {
+        var cards = lockTransferCards(request.getFromCard(), request.getToCard());
+        validateCardsAccess(cards.from(), cards.to());
+        validateCardsStatus(cards.from(), cards.to());
+        validateSufficientBalance(ledgerService.availableBalance(cards.from()), request.getAmount());
+
+        ledgerService.recordPending(cards.from().getId(), cards.to().getId(), request.getAmount());
+    }
+
+    private void executeAtomicTransfer(TransferRequest request) {
+        var currentUser = authService.getCurrentPrincipal();
+        var updatedCards = repository.transferBalance(
+                request.getFromCard(),
+                request.getToCard(),
+                request.getAmount(),
+                currentUser.id(),
+                currentUser.isAdmin(),
+                CardStatus.BLOCKED
+        );
+
+        if (updatedCards != 2) {
+            rejectAtomicTransfer(request);
+        }
+        ledgerService.recordApplied(request.getFromCard(), request.getToCard(), request.getAmount());
+        balanceCache.evictAfterCommit(List.of(request.getFromCard(), request.getToCard()));
+    }
+
+    private void rejectAtomicTransfer(TransferRequest request) {
+        var fromCard = findCardById(request.getFromCard());
+        var toCard = findCardById(request.getToCard());
+        validateCardsAccess(fromCard, toCard);
+        validateCardsStatus(fromCard, toCard);
+        validateSufficientBalance(fromCard.getBalance(), request.getAmount());
+
+        throw new OptimisticLockingFailureException("Cards changed while transfer was applied");
     }
 
-    private void validateCardNumberUniqueness(String cardNumber) {
-        if (repository.existsByNumber(cardNumber)) {
+    private void validateCardNumberUniqueness(String numberHash) {
+        if (numberFilter.exists(numberHash, repository::existsByNumberHash)) {
             throw new DuplicateCardException();
         }
     }
 
+    private Card saveNewCard(Card card) {
+        try {
+            return repository.saveAndFlush(card);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new DuplicateCardException();
+            }
+            throw e;
+        }
+    }
+
+    private void validateSufficientBalance(BigDecimal available, BigDecimal amount) {
+        if (available.compareTo(amount) < 0) {
+            throw new NotEnoughFundsException("Not enough funds on source card for transfer");
+        }
+    }
+
     private void validateCardsStatus(Card from, Card to) {
         if (from.isBlocked()) {
             throw new IllegalTransferException("Cannot transfer from blocked card");
@@ -142,20 +373,39 @@ public class CardService {
     }
 
     private void validateCardsAccess(Card from, Card to) {
-        validateCardAccess(from);
-        validateCardAccess(to);
+        var currentUser = authService.getCurrentPrincipal();
+        validateCardAccess(from, currentUser);
+        validateCardAccess(to, currentUser);
     }
 
     private void validateCardAccess(Card card) {
-        var currentUser = authService.getCurrentUser();
+        validateCardAccess(card, authService.getCurrentPrincipal());
+    }
 
-        if (currentUser.isAdmin() || card.isOwnedBy(currentUser)) {
+    private void validateCardAccess(UUID cardId, Long ownerId) {
+        var currentUser = authService.getCurrentPrincipal();
+        if (currentUser.isAdmin() || currentUser.id().equals(ownerId)) {
+            return;
+        }
+
+        throw new AccessDeniedException("You do not have access to this card " + cardId);
+    }
+
+    private void validateCardAccess(Card card, AuthenticatedUser currentUser) {
+        if (currentUser.isAdmin() || card.isOwnedBy(currentUser.id())) {
             return;
         }
 
         throw new AccessDeniedException("You do not have access to this card " + card.getId());
     }
 
+    private static <T> String pageVersion(Page<T> page, Function<T, UUID> id, Function<T, Long> version) {
+        var digest = new StringBuilder().append(page.getTotalElements());
+        page.forEach(item -> digest.append('|').append(id.apply(item)).append(':').append(version.apply(item)));
+
+        return DigestUtils.md5DigestAsHex(digest.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     private void validateTransferRequest(TransferRequest request) {
         if (request.getFromCard().equals(request.getToCard())) {
             throw new IllegalTransferException("Cannot transfer to the same card");
@@ -163,8 +413,14 @@ public class CardService {
     }
 
     private CardDto toMaskedCardDto(Card card) {
-        var cardDto = mapper.toDto(card);
-        cardDto.setNumber(masker.mask(cardDto.getNumber()));
+        return maskNumber(mapper.toDto(card));
+    }
+
+    private CardDto maskNumber(CardDto cardDto) {
+        cardDto.setNumber(codec.mask(cardDto.getNumber()));
         return cardDto;
     }
+
+    private record TransferCards(Card from, Card to) {
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.bankcards.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+public class IdempotencyKeyCleaner {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "#{@idempotencyConfig.cleanupInterval.toMillis()}")
+    public void removeExpiredKeys() {
+        idempotencyService.removeExpiredKeys();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.IdempotencyConfig;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.example.bankcards.exception.IllegalTransferException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyConfig config;
+    private final Cache<CompletedKey, String> completed;
+    private final Counter cachedReplays;
+    private final Counter storedReplays;
+
+    public IdempotencyService(IdempotencyKeyRepository repository, IdempotencyConfig config, MeterRegistry registry) {
+        this.repository = repository;
+        this.config = config;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(config.getCacheSize())
+                .expireAfterWrite(config.getCacheTtl())
+                .build();
+        this.cachedReplays = Counter.builder("transfer.idempotency.replays")
+                .tag("source", "cache")
+                .description("Replayed transfers answered from the in-memory outcome cache")
+                .register(registry);
+        this.storedReplays = Counter.builder("transfer.idempotency.replays")
+                .tag("source", "database")
+                .description("Replayed transfers answered from the idempotency key table")
+                .register(registry);
+    }
+
+    public IdempotentRequest describe(Long userId, String key, TransferRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalTransferException("Invalid Idempotency-Key header");
+        }
+        return new IdempotentRequest(userId, key, hash(request));
+    }
+
+    public boolean isReplay(IdempotentRequest request) {
+        var requestHash = completed.getIfPresent(new CompletedKey(request.userId(), request.key()));
+        if (requestHash == null) {
+            return false;
+        }
+
+        validateSameRequest(requestHash, request);
+        cachedReplays.increment();
+        return true;
+    }
+
+    public boolean isStoredReplay(IdempotentRequest request) {
+        var requestHash = repository.findRequestHash(request.userId(), request.key());
+        if (requestHash.isEmpty()) {
+            return false;
+        }
+
+        validateSameRequest(requestHash.get(), request);
+        storedReplays.increment();
+        remember(request);
+        return true;
+    }
+
+    public void register(IdempotentRequest request) {
+        repository.insertKey(request.userId(), request.key(), request.requestHash(), Instant.now());
+    }
+
+    public void remember(IdempotentRequest request) {
+        completed.put(new CompletedKey(request.userId(), request.key()), request.requestHash());
+    }
+
+    @Transactional
+    public int removeExpiredKeys() {
+        return repository.deleteCreatedBefore(Instant.now().minus(config.getKeyTtl()));
+    }
+
+    private void validateSameRequest(String requestHash, IdempotentRequest request) {
+        if (!requestHash.equals(request.requestHash())) {
+            throw new IdempotencyKeyReusedException();
+        }
+    }
+
+    private static String hash(TransferRequest request) {
+        var payload = request.getFromCard() + "|" + request.getToCard() + "|" +
+                request.getAmount().stripTrailingZeros().toPlainString();
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CompletedKey(Long userId, String key) {
+    }
+}
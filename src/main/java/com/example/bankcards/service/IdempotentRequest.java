@@ -0,0 +1,4 @@
+package com.example.bankcards.service;
+
+public record IdempotentRequest(Long userId, String key, String requestHash) {
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+@Service
+@AllArgsConstructor
+public class IdempotentTransferService {
+
+    private final CardService cardService;
+    private final IdempotencyService idempotencyService;
+    private final AuthService authService;
+
+    public void transfer(TransferRequest request, String idempotencyKey) {
+        var idempotentRequest = idempotencyService.describe(authService.getCurrentUserId(), idempotencyKey, request);
+        if (idempotencyService.isReplay(idempotentRequest)) {
+            return;
+        }
+
+        try {
+            cardService.transferFundsBetweenOwnCards(request, idempotentRequest);
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyService.isStoredReplay(idempotentRequest)) {
+                return;
+            }
+            throw e;
+        }
+        idempotencyService.remember(idempotentRequest);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.Jwt;
+import com.example.bankcards.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+
+@Component
+public class JwtCodec {
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    public JwtCodec(JwtConfig jwtConfig) {
+        this.key = jwtConfig.getSecretKey();
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+    }
+
+    public Jwt encode(Claims claims) {
+        var compact = Jwts.builder()
+                .claims(claims)
+                .signWith(key)
+                .compact();
+        return new Jwt(claims, compact);
+    }
+
+    public Jwt decode(String token) {
+        var claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new Jwt(claims, token);
+    }
+}
@@ -3,7 +3,7 @@ package com.example.bankcards.service;
 import com.example.bankcards.config.Jwt;
 import com.example.bankcards.config.JwtConfig;
 import com.example.bankcards.entity.User;
-import io.jsonwebtoken.Claims;
+import com.example.bankcards.repository.UserSnapshot;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import lombok.AllArgsConstructor;
@@ -15,42 +15,38 @@ import java.util.Date;
 @AllArgsConstructor
 public class JwtService {
     private final JwtConfig jwtConfig;
+    private final JwtCodec jwtCodec;
 
     public Jwt generateAccessToken(User user) {
+        return generateAccessToken(UserSnapshot.of(user));
+    }
+
+    public Jwt generateAccessToken(UserSnapshot user) {
         return generateToken(user, jwtConfig.getAccessTokenExpiration());
     }
 
-    public Jwt generateRefreshToken(User user) {
+    public Jwt generateRefreshToken(UserSnapshot user) {
         return generateToken(user, jwtConfig.getRefreshTokenExpiration());
     }
 
     public Jwt parseToken(String token) {
         try {
-            var claims = getClaims(token);
-            return new Jwt(claims, jwtConfig.getSecretKey());
+            return jwtCodec.decode(token);
         } catch (JwtException e) {
             return null;
         }
     }
 
-    private Jwt generateToken(User user, long tokenExpiration) {
+    private Jwt generateToken(UserSnapshot user, long tokenExpiration) {
         var claims = Jwts.claims()
-                .subject(String.valueOf(user.getId()))
-                .add("email", user.getEmail())
-                .add("name", user.getName())
-                .add("role", user.getRole())
+                .subject(String.valueOf(user.id()))
+                .add("email", user.email())
+                .add("name", user.name())
+                .add("role", user.role())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + 1000 * tokenExpiration))
                 .build();
 
-        return new Jwt(claims, jwtConfig.getSecretKey());
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(jwtConfig.getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtCodec.encode(claims);
     }
 }
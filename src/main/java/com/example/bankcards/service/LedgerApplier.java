@@ -0,0 +1,42 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LedgerApplier {
+
+    private final LedgerService ledgerService;
+    private final TransferConfig transferConfig;
+    private final Counter conflicts;
+    private final Counter errors;
+
+    public LedgerApplier(LedgerService ledgerService, TransferConfig transferConfig, MeterRegistry registry) {
+        this.ledgerService = ledgerService;
+        this.transferConfig = transferConfig;
+        this.conflicts = registry.counter("ledger.apply.failures", "reason", "conflict");
+        this.errors = registry.counter("ledger.apply.failures", "reason", "error");
+    }
+
+    @Scheduled(fixedDelayString = "#{@transferConfig.ledger.applyInterval.toMillis()}")
+    public void applyPendingEntries() {
+        try {
+            int applied;
+            do {
+                applied = ledgerService.applyPending();
+            } while (applied >= transferConfig.getLedger().getBatchSize());
+        } catch (OptimisticLockingFailureException e) {
+            conflicts.increment();
+            log.warn("Pending ledger entries changed while being applied, retrying on the next run: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.error("Failed to apply pending ledger entries", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.dto.card.BalanceMismatchDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.repository.CardAmount;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class LedgerService {
+
+    private final LedgerEntryRepository repository;
+    private final CardRepository cardRepository;
+    private final TransferConfig transferConfig;
+    private final CardBalanceCache balanceCache;
+    private final MeterRegistry meterRegistry;
+
+    public void recordOpening(Card card) {
+        if (card.getBalance().signum() != 0) {
+            repository.save(entry(null, card.getId(), card.getBalance(), Instant.now()));
+        }
+    }
+
+    public void recordOpenings(Collection<Card> cards) {
+        var now = Instant.now();
+        repository.saveAll(cards.stream()
+                .filter(card -> card.getBalance().signum() != 0)
+                .map(card -> entry(null, card.getId(), card.getBalance(), now))
+                .toList());
+    }
+
+    public void recordApplied(UUID fromCardId, UUID toCardId, BigDecimal amount) {
+        repository.save(entry(fromCardId, toCardId, amount, Instant.now()));
+    }
+
+    public void recordPending(UUID fromCardId, UUID toCardId, BigDecimal amount) {
+        repository.save(entry(fromCardId, toCardId, amount, null));
+    }
+
+    public BigDecimal availableBalance(Card card) {
+        return card.getBalance().add(repository.sumPendingDelta(card.getId()));
+    }
+
+    public boolean hasPending(UUID cardId) {
+        return repository.existsPending(cardId);
+    }
+
+    @Transactional
+    public int applyPending() {
+        var pendingIds = repository.findPendingIds(Limit.of(transferConfig.getLedger().getBatchSize()));
+        if (pendingIds.isEmpty()) {
+            return 0;
+        }
+
+        var maxId = pendingIds.get(pendingIds.size() - 1);
+        var orphaned = markOrphaned(maxId);
+        var expected = repository.countPending(maxId);
+        var deltas = sumDeltas(repository.sumPendingCredits(maxId), repository.sumPendingDebits(maxId));
+
+        deltas.forEach((cardId, delta) -> {
+            if (delta.signum() != 0 && cardRepository.applyBalanceDelta(cardId, delta) != 1) {
+                throw new IllegalStateException("Pending ledger entries reference missing card " + cardId);
+            }
+        });
+
+        var applied = markApplied(maxId);
+        if (applied != expected) {
+            throw new OptimisticLockingFailureException("Ledger changed while pending entries were applied");
+        }
+        balanceCache.evictAfterCommit(deltas.keySet());
+        return applied + orphaned;
+    }
+
+    @Transactional
+    public List<BalanceMismatchDto> rebuildBalances() {
+        var ledgerBalances = sumDeltas(repository.sumAppliedCredits(), repository.sumAppliedDebits());
+        var suspects = cardRepository.findAllBalances().stream()
+                .filter(card -> ledgerBalances.getOrDefault(card.getCardId(), BigDecimal.ZERO)
+                        .compareTo(card.getAmount()) != 0)
+                .map(CardAmount::getCardId)
+                .sorted(CardService.LOCK_ORDER)
+                .toList();
+
+        var mismatches = new ArrayList<BalanceMismatchDto>();
+        for (UUID cardId : suspects) {
+            cardRepository.findByIdForUpdate(cardId).ifPresent(card -> {
+                var ledgerBalance = repository.sumAppliedBalance(cardId);
+                if (ledgerBalance.compareTo(card.getBalance()) != 0) {
+                    mismatches.add(new BalanceMismatchDto(cardId, card.getBalance(), ledgerBalance));
+                    card.setBalance(ledgerBalance);
+                    balanceCache.putAfterCommit(List.of(card));
+                }
+            });
+        }
+        return mismatches;
+    }
+
+    private int markOrphaned(Long maxId) {
+        var orphaned = repository.markOrphaned(maxId, Instant.now());
+        if (orphaned > 0) {
+            log.warn("Skipped {} pending ledger entries up to id {} that reference deleted cards", orphaned, maxId);
+            meterRegistry.counter("ledger.entries.orphaned").increment(orphaned);
+        }
+        return orphaned;
+    }
+
+    private int markApplied(Long maxId) {
+        try {
+            return repository.markApplied(maxId, Instant.now());
+        } catch (DataIntegrityViolationException e) {
+            throw new OptimisticLockingFailureException("Pending entries were applied concurrently", e);
+        }
+    }
+
+    private Map<UUID, BigDecimal> sumDeltas(List<CardAmount> credits, List<CardAmount> debits) {
+        var deltas = new TreeMap<UUID, BigDecimal>(CardService.LOCK_ORDER);
+        credits.forEach(credit -> deltas.merge(credit.getCardId(), credit.getAmount(), BigDecimal::add));
+        debits.forEach(debit -> deltas.merge(debit.getCardId(), debit.getAmount().negate(), BigDecimal::add));
+        return deltas;
+    }
+
+    private LedgerEntry entry(UUID fromCardId, UUID toCardId, BigDecimal amount, Instant appliedAt) {
+        return LedgerEntry.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .createdAt(Instant.now())
+                .appliedAt(appliedAt)
+                .build();
+    }
+}
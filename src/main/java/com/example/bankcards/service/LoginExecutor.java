@@ -0,0 +1,47 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.LoginConfig;
+import com.example.bankcards.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+@Component
+public class LoginExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Counter rejected;
+
+    public LoginExecutor(LoginConfig config, MeterRegistry registry) {
+        var pool = new ThreadPoolExecutor(
+                config.getPoolSize(),
+                config.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                new CustomizableThreadFactory("login-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(registry, pool, "login");
+        this.rejected = registry.counter("login.rejected");
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginThrottledException();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
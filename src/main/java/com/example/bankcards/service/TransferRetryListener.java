@@ -0,0 +1,44 @@
+package com.example.bankcards.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+@Component("transferRetryListener")
+public class TransferRetryListener implements RetryListener {
+    private final Counter conflicts;
+    private final Counter recovered;
+    private final Counter exhausted;
+
+    public TransferRetryListener(MeterRegistry registry) {
+        this.conflicts = Counter.builder("transfer.conflicts")
+                .description("Transfer attempts rejected by an optimistic locking conflict")
+                .register(registry);
+        this.recovered = Counter.builder("transfer.retry.recovered")
+                .description("Transfers that succeeded after at least one retry")
+                .register(registry);
+        this.exhausted = Counter.builder("transfer.retry.exhausted")
+                .description("Transfers that failed after using up all retry attempts")
+                .register(registry);
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            conflicts.increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            exhausted.increment();
+        } else if (throwable == null && context.getRetryCount() > 0) {
+            recovered.increment();
+        }
+    }
+}
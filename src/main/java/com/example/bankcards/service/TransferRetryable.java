@@ -0,0 +1,24 @@
+package com.example.bankcards.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.*;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(
+        retryFor = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "#{@transferConfig.retry.maxAttempts}",
+        backoff = @Backoff(
+                delayExpression = "#{@transferConfig.retry.initialBackoff.toMillis()}",
+                maxDelayExpression = "#{@transferConfig.retry.maxBackoff.toMillis()}",
+                multiplierExpression = "#{@transferConfig.retry.multiplier}",
+                random = true
+        ),
+        listeners = {"transferRetryListener", "transferTimingListener"}
+)
+public @interface TransferRetryable {
+}
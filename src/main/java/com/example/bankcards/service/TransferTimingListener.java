@@ -0,0 +1,43 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+@Component("transferTimingListener")
+public class TransferTimingListener implements RetryListener {
+
+    private static final String SAMPLE = TransferTimingListener.class.getName() + ".sample";
+
+    private final MeterRegistry registry;
+    private final TransferConfig transferConfig;
+
+    public TransferTimingListener(MeterRegistry registry, TransferConfig transferConfig) {
+        this.registry = registry;
+        this.transferConfig = transferConfig;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(SAMPLE, Timer.start(registry));
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (!(context.getAttribute(SAMPLE) instanceof Timer.Sample sample)) {
+            return;
+        }
+
+        sample.stop(Timer.builder("transfer.execution")
+                .description("Transfer execution time including retries and commit")
+                .tag("mode", transferConfig.getMode().name())
+                .tag("outcome", throwable == null ? "SUCCESS" : "FAILURE")
+                .tag("exception", throwable == null ? "none" : throwable.getClass().getSimpleName())
+                .register(registry));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.UserSnapshot;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+@Component
+@AllArgsConstructor
+public class UserLookup {
+
+    static final String USERS = "users";
+    static final String USERS_BY_EMAIL = "usersByEmail";
+
+    private final UserRepository repository;
+    private final CacheManager cacheManager;
+
+    @Cacheable(cacheNames = USERS, key = "#id", unless = "#result == null")
+    public Optional<UserSnapshot> findById(Long id) {
+        return repository.findSnapshotById(id);
+    }
+
+    @Cacheable(cacheNames = USERS_BY_EMAIL, key = "#email", unless = "#result == null")
+    public Optional<UserSnapshot> findByEmail(String email) {
+        return repository.findSnapshotByEmail(email);
+    }
+
+    public void evict(Long id, String... emails) {
+        evictNow(id, emails);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id, emails);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id, String... emails) {
+        var users = cacheManager.getCache(USERS);
+        if (users != null) {
+            users.evict(id);
+        }
+
+        var usersByEmail = cacheManager.getCache(USERS_BY_EMAIL);
+        if (usersByEmail != null) {
+            for (String email : emails) {
+                usersByEmail.evict(email);
+            }
+        }
+    }
+}
@@ -9,12 +9,13 @@ import com.example.bankcards.exception.DuplicateUserException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.mapper.UserMapper;
 import com.example.bankcards.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.example.bankcards.repository.UserSnapshot;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Set;
@@ -27,6 +28,7 @@ public class UserService {
     private static final String DEFAULT_SORT_FIELD = "name";
 
     private final UserRepository repository;
+    private final UserLookup userLookup;
     private final UserMapper mapper;
     private final PasswordEncoder passwordEncoder;
 
@@ -44,9 +46,11 @@ public class UserService {
     @Transactional
     public UserDto updateUser(Long id, UpdateUserRequest request) {
         var user = findUserById(id);
+        var previousEmail = user.getEmail();
         mapper.update(request, user);
 
         var updatedUser = repository.save(user);
+        userLookup.evict(id, previousEmail, updatedUser.getEmail());
 
         return mapper.toDto(updatedUser);
     }
@@ -55,6 +59,7 @@ public class UserService {
     public void deleteUser(Long id) {
         var user = findUserById(id);
         repository.delete(user);
+        userLookup.evict(id, user.getEmail());
     }
 
     @Transactional
@@ -64,8 +69,10 @@ public class UserService {
 
         encodeAndSetUserPassword(user, request.getNewPassword());
         repository.save(user);
+        userLookup.evict(id, user.getEmail());
     }
 
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers(String sortBy) {
         var sortFields = validateAndGetSortField(sortBy);
         var sort = Sort.by(sortFields);
@@ -76,15 +83,34 @@ public class UserService {
     }
 
     public UserDto getUserDto(Long id) {
-        var user = findUserById(id);
+        return mapper.toDto(findSnapshotById(id));
+    }
+
+    public UserDto getUserDto(Long id, long minVersion) {
+        var user = findSnapshotById(id);
+        if (user.version() < minVersion) {
+            userLookup.evict(id, user.email());
+            user = findSnapshotById(id);
+        }
         return mapper.toDto(user);
     }
 
+    @Transactional(readOnly = true)
+    public long getUserVersion(Long id) {
+        return repository.findVersionById(id)
+                .orElseThrow(UserNotFoundException::new);
+    }
+
     public User findUserById(Long userId) {
         return repository.findById(userId)
                 .orElseThrow(UserNotFoundException::new);
     }
 
+    private UserSnapshot findSnapshotById(Long userId) {
+        return userLookup.findById(userId)
+                .orElseThrow(UserNotFoundException::new);
+    }
+
     private void validateEmailUniqueness(String email) {
         if (repository.existsByEmail(email)) {
             throw new DuplicateUserException();
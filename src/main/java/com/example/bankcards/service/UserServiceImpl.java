@@ -1,9 +1,11 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,7 +14,8 @@ import java.util.ArrayList;
 
 @AllArgsConstructor
 @Service
-public class UserServiceImpl implements UserDetailsService {
+public class UserServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    private final UserLookup userLookup;
     private final UserRepository repository;
 
     @Override
@@ -22,4 +25,15 @@ public class UserServiceImpl implements UserDetailsService {
 
         return new User(user.getEmail(), user.getPassword(), new ArrayList<>());
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+        var user = repository.findByEmail(details.getUsername()).orElseThrow(
+                () -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        userLookup.evict(user.getId(), user.getEmail());
+
+        return User.withUserDetails(details).password(newPassword).build();
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.bankcards.util;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class CardNumberCodec {
+
+    public static final int LENGTH = 16;
+    public static final int MASKED_LENGTH = 19;
+
+    private static final char[] MASK_PREFIX = "**** **** **** ".toCharArray();
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MASKED_LENGTH]);
+
+    public static boolean isValid(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+
+        int digits = 0;
+        int sum = 0;
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == LENGTH) {
+                return false;
+            }
+
+            int digit = c - '0';
+            if (digits % 2 == 0) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            digits++;
+        }
+        return digits == LENGTH && sum % 10 == 0;
+    }
+
+    public static String normalize(String value) {
+        if (value == null || value.length() == LENGTH) {
+            return value;
+        }
+
+        var buffer = BUFFER.get();
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == LENGTH) {
+                return value;
+            }
+            buffer[digits++] = c;
+        }
+        return digits == LENGTH ? new String(buffer, 0, LENGTH) : value;
+    }
+
+    public String mask(String number) {
+        var buffer = BUFFER.get();
+        return new String(buffer, 0, mask(number, buffer, 0));
+    }
+
+    public int mask(CharSequence number, char[] target, int offset) {
+        if (number == null || number.length() < 4) {
+            throw new IllegalArgumentException("Card number must contain at least the last 4 digits");
+        }
+
+        System.arraycopy(MASK_PREFIX, 0, target, offset, MASK_PREFIX.length);
+        var last = number.length() - 4;
+        for (int i = 0; i < 4; i++) {
+            target[offset + MASK_PREFIX.length + i] = number.charAt(last + i);
+        }
+        return MASKED_LENGTH;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-';
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bankcards.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        var words = Math.toIntExact((bits + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(words);
+        this.counters = (long) words * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(CharSequence value) {
+        var hash = hash(value);
+        var first = mix(hash);
+        var second = mix(hash ^ 0x9e3779b97f4a7c15L);
+
+        for (int i = 0; i < hashes; i++) {
+            increment(index(first, second, i));
+        }
+    }
+
+    public boolean mightContain(CharSequence value) {
+        var hash = hash(value);
+        var first = mix(hash);
+        var second = mix(hash ^ 0x9e3779b97f4a7c15L);
+
+        for (int i = 0; i < hashes; i++) {
+            var index = index(first, second, i);
+            if (counter(words.get(word(index)), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double expectedFalsePositiveRate(long elements) {
+        return Math.pow(1 - Math.exp(-(double) hashes * elements / counters), hashes);
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    private void increment(long index) {
+        var word = word(index);
+        var shift = shift(index);
+
+        while (true) {
+            var current = words.get(word);
+            if (((current >>> shift) & COUNTER_MASK) == COUNTER_MASK
+                    || words.compareAndSet(word, current, current + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private long index(long first, long second, int i) {
+        return ((first + i * second) & Long.MAX_VALUE) % counters;
+    }
+
+    private static int word(long index) {
+        return (int) (index / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    private static long counter(long word, long index) {
+        return (word >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private static long hash(CharSequence value) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
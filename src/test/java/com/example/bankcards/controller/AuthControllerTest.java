@@ -0,0 +1,106 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.config.Jwt;
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.config.LoginConfig;
+import com.example.bankcards.dto.auth.LoginRequest;
+import com.example.bankcards.dto.auth.LoginResponse;
+import com.example.bankcards.exception.GlobalExceptionHandler;
+import com.example.bankcards.exception.LoginThrottledException;
+import com.example.bankcards.service.AuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private LoginRequest loginRequest;
+
+    @Mock
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+
+        var jwtConfig = new JwtConfig();
+        jwtConfig.setRefreshTokenExpiration(604800);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(jwtConfig, new LoginConfig(), authService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        loginRequest = new LoginRequest();
+        loginRequest.setEmail("user@example.com");
+        loginRequest.setPassword("password");
+    }
+
+    @Test
+    void login_ValidCredentials_ShouldReturnTokenAndRefreshCookie() throws Exception {
+        var accessToken = mock(Jwt.class);
+        var refreshToken = mock(Jwt.class);
+        when(accessToken.toString()).thenReturn("access");
+        when(refreshToken.toString()).thenReturn("refresh");
+        when(authService.loginAsync(any(LoginRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(new LoginResponse(accessToken, refreshToken)));
+
+        var result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("access"))
+                .andExpect(header().string("Set-Cookie", containsString("refreshToken=refresh")))
+                .andExpect(header().string("Set-Cookie", containsString("HttpOnly")));
+    }
+
+    @Test
+    void login_BadCredentials_ShouldReturnUnauthorized() throws Exception {
+        when(authService.loginAsync(any(LoginRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new BadCredentialsException("Bad credentials")));
+
+        var result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void login_ExecutorSaturated_ShouldReturnServiceUnavailable() throws Exception {
+        when(authService.loginAsync(any(LoginRequest.class))).thenThrow(new LoginThrottledException());
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
@@ -1,18 +1,29 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.card.BalanceMismatchDto;
+import com.example.bankcards.dto.card.BulkCreateCardRequest;
+import com.example.bankcards.dto.card.BulkCreateCardResponse;
+import com.example.bankcards.dto.card.CardCursorPage;
 import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.dto.card.CardIssueResult;
+import com.example.bankcards.dto.card.CardIssueStatus;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.UpdateCardStatusRequest;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.exception.*;
+import com.example.bankcards.service.CardIssuanceService;
+import com.example.bankcards.service.CardListingService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.IdempotentTransferService;
+import com.example.bankcards.service.LedgerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
@@ -21,10 +32,13 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -35,11 +49,25 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class CardControllerTest {
 
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
     @Mock
     private CardService cardService;
 
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private IdempotentTransferService idempotentTransferService;
+
+    @Mock
+    private CardListingService cardListingService;
+
+    @Mock
+    private CardIssuanceService cardIssuanceService;
+
     @InjectMocks
     private CardController cardController;
 
@@ -52,9 +80,6 @@ class CardControllerTest {
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
-        objectMapper.findAndRegisterModules();
-
         mockMvc = MockMvcBuilders.standaloneSetup(cardController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -132,6 +157,36 @@ class CardControllerTest {
         verify(cardService, times(1)).createCard(any(CreateCardRequest.class));
     }
 
+    @Test
+    void createCards_ShouldReturnResultPerItem() throws Exception {
+        createCardRequest.setBalance(new BigDecimal("100.00"));
+        var request = new BulkCreateCardRequest(List.of(createCardRequest, createCardRequest));
+        when(cardIssuanceService.createCards(any(BulkCreateCardRequest.class)))
+                .thenReturn(new BulkCreateCardResponse(1, List.of(
+                        new CardIssueResult(0, CardIssueStatus.CREATED, cardId1, null),
+                        new CardIssueResult(1, CardIssueStatus.FAILED, null, "Card number is already registered.")
+                )));
+
+        mockMvc.perform(post("/api/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[0].cardId", is(cardId1.toString())))
+                .andExpect(jsonPath("$.results[1].status", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].error", is("Card number is already registered.")));
+    }
+
+    @Test
+    void createCards_EmptyBatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCreateCardRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(cardIssuanceService, never()).createCards(any());
+    }
+
     @Test
     void transferBetweenOwnCards_ValidRequest_ShouldReturn() throws Exception {
         doNothing().when(cardService).transferFundsBetweenOwnCards(any(TransferRequest.class));
@@ -144,6 +199,31 @@ class CardControllerTest {
         verify(cardService, times(1)).transferFundsBetweenOwnCards(any(TransferRequest.class));
     }
 
+    @Test
+    void transferBetweenOwnCards_WithIdempotencyKey_ShouldUseIdempotentTransfer() throws Exception {
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isOk());
+
+        verify(idempotentTransferService, times(1)).transfer(any(TransferRequest.class), eq("retry-1"));
+        verify(cardService, never()).transferFundsBetweenOwnCards(any(TransferRequest.class));
+    }
+
+    @Test
+    void transferBetweenOwnCards_ReusedIdempotencyKey_ShouldReturnUnprocessableEntity() throws Exception {
+        doThrow(new IdempotencyKeyReusedException())
+                .when(idempotentTransferService).transfer(any(TransferRequest.class), eq("retry-1"));
+
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error", containsString("Idempotency-Key")));
+    }
+
     @Test
     void transferBetweenOwnCards_InvalidRequest_ShouldReturnBadRequest() throws Exception {
         TransferRequest invalidRequest = TransferRequest.builder()
@@ -202,6 +282,52 @@ class CardControllerTest {
         verify(cardService, times(1)).transferFundsBetweenOwnCards(any(TransferRequest.class));
     }
 
+    @Test
+    void getCards_WithCursor_ShouldReturnNextPage() throws Exception {
+        when(cardListingService.getCards(cardId1, 1))
+                .thenReturn(new CardCursorPage(List.of(cardDto1), cardId1.toString()));
+
+        mockMvc.perform(get("/api/cards")
+                        .param("cursor", cardId1.toString())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(cardId1.toString())))
+                .andExpect(jsonPath("$.nextCursor", is(cardId1.toString())));
+    }
+
+    @Test
+    void exportCards_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        var cardDto2 = CardDto.builder()
+                .id(cardId2)
+                .number("**** **** **** 4321")
+                .userId(1L)
+                .status(CardStatus.BLOCKED)
+                .balance(BigDecimal.ZERO)
+                .build();
+        doAnswer(invocation -> {
+            Consumer<CardDto> consumer = invocation.getArgument(0);
+            consumer.accept(cardDto1);
+            consumer.accept(cardDto2);
+            return null;
+        }).when(cardListingService).exportCards(any());
+
+        var result = mockMvc.perform(get("/api/cards/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals(cardId1.toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals(cardId2.toString(), objectMapper.readTree(lines[1]).get("id").asText());
+    }
+
     @Test
     void getCard_ValidId_ShouldReturnCard() throws Exception {
         when(cardService.getCardDto(cardId1)).thenReturn(cardDto1);
@@ -309,4 +435,17 @@ class CardControllerTest {
 
         verify(cardService, times(1)).removeCard(cardId1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void rebuildBalancesFromLedger_ShouldReturnFixedMismatches() throws Exception {
+        when(ledgerService.rebuildBalances()).thenReturn(List.of(
+                new BalanceMismatchDto(cardId1, new BigDecimal("1000.00"), new BigDecimal("900.00"))));
+
+        mockMvc.perform(post("/api/cards/ledger/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cardId", is(cardId1.toString())))
+                .andExpect(jsonPath("$[0].ledgerBalance", is(900.00)));
+
+        verify(ledgerService, times(1)).rebuildBalances();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.JwtService;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.support.QueryBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import static com.example.bankcards.support.QueryBudget.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CardQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    private String userToken;
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Budget");
+        user.setEmail("budget@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        var owner = userRepository.save(user);
+        userToken = "Bearer " + jwtService.generateAccessToken(owner);
+
+        var cards = IntStream.range(0, 10)
+                .mapToObj(i -> cardRepository.save(Card.builder()
+                        .number("400000000000000" + i)
+                        .user(owner)
+                        .expirationDate(LocalDate.now().plusYears(3))
+                        .status(CardStatus.ACTIVE)
+                        .balance(new BigDecimal("100.00"))
+                        .build()))
+                .peek(ledgerService::recordOpening)
+                .toList();
+        first = cards.get(0);
+        second = cards.get(1);
+    }
+
+    @Test
+    void getCard_ShouldUseSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/cards/{id}", first.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Sql-Statements", "1"))
+                .andExpect(header().string("X-Sql-Rows", "1"))
+                .andExpect(header().exists("X-Sql-Time-Ms"));
+    }
+
+    @Test
+    void getUserCards_ShouldNotGrowWithPageSize() throws Exception {
+        mockMvc.perform(get("/api/cards/my").param("size", "10").header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+
+        mockMvc.perform(get("/api/cards/my/scroll").param("size", "10").header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    void transfer_ShouldStayWithinBudget() throws Exception {
+        var request = new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN);
+
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Authorization", userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(5));
+    }
+
+    @Test
+    void request_ShouldRecordStatementsPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/cards/{id}", first.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk());
+
+        var summary = meterRegistry.find("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", "/api/cards/{id}")
+                .summary();
+        assertNotNull(summary);
+        assertTrue(summary.count() >= 1);
+        assertEquals(1.0, summary.max());
+    }
+
+    @Test
+    void queryBudget_ShouldFailWhenExceeded() {
+        assertThrows(AssertionError.class, () -> QueryBudget.atMost(0, () -> cardRepository.count()));
+        assertEquals(10L, QueryBudget.atMost(1, () -> cardRepository.count()));
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.JwtService;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private String userToken;
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        idempotencyKeyRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Conditional");
+        user.setEmail("conditional@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+        userToken = "Bearer " + jwtService.generateAccessToken(owner);
+
+        var cards = IntStream.range(0, 3)
+                .mapToObj(i -> cardRepository.save(Card.builder()
+                        .number("400000000000000" + i)
+                        .user(owner)
+                        .expirationDate(LocalDate.now().plusYears(3))
+                        .status(CardStatus.ACTIVE)
+                        .balance(new BigDecimal("100.00"))
+                        .build()))
+                .peek(ledgerService::recordOpening)
+                .toList();
+        first = cards.get(0);
+        second = cards.get(1);
+    }
+
+    @Test
+    void getCard_ShouldReturnStrongETagWithoutExposingVersion() throws Exception {
+        mockMvc.perform(get("/api/cards/{id}", first.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + first.getVersion() + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void getCard_ShouldAnswerNotModifiedFromVersionQuery() throws Exception {
+        var etag = cardETag();
+
+        mockMvc.perform(get("/api/cards/{id}", first.getId())
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string("X-Sql-Statements", "1"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getCard_ShouldReturnNewETagAfterTransfer() throws Exception {
+        var etag = cardETag();
+        transfer();
+
+        var changed = mockMvc.perform(get("/api/cards/{id}", first.getId())
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(90.0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void getCard_ShouldRejectForeignCardBeforeComparingVersions() throws Exception {
+        var stranger = new User();
+        stranger.setName("Stranger");
+        stranger.setEmail("stranger@example.com");
+        stranger.setPassword("password");
+        stranger.setRole(Role.USER);
+        var strangerToken = "Bearer " + jwtService.generateAccessToken(userRepository.save(stranger));
+
+        mockMvc.perform(get("/api/cards/{id}", first.getId())
+                        .header("Authorization", strangerToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, cardETag()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getUserCards_ShouldUseCombinedPageETag() throws Exception {
+        var etag = mockMvc.perform(get("/api/cards/my").param("size", "2").header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/cards/my")
+                        .param("size", "2")
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(get("/api/cards/my")
+                        .param("size", "2")
+                        .param("page", "1")
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        transfer();
+
+        mockMvc.perform(get("/api/cards/my")
+                        .param("size", "2")
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void getUser_ShouldAnswerNotModifiedUntilUserChanges() throws Exception {
+        var etag = mockMvc.perform(get("/api/users/{id}", owner.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/{id}", owner.getId())
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        var request = new UpdateUserRequest();
+        request.setName("Renamed");
+        request.setEmail(owner.getEmail());
+        userService.updateUser(owner.getId(), request);
+
+        mockMvc.perform(get("/api/users/{id}", owner.getId())
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"));
+    }
+
+    @Test
+    void getUser_ShouldNotAnswerFromStaleCache_WhenUserChangedElsewhere() throws Exception {
+        var etag = mockMvc.perform(get("/api/users/{id}", owner.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("update users set name = 'Elsewhere', version = version + 1 where id = ?", owner.getId());
+
+        mockMvc.perform(get("/api/users/{id}", owner.getId())
+                        .header("Authorization", userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.name").value("Elsewhere"));
+    }
+
+    private String cardETag() throws Exception {
+        return mockMvc.perform(get("/api/cards/{id}", first.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void transfer() throws Exception {
+        var request = new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN);
+
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Authorization", userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().is2xxSuccessful());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.bankcards.datasource;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.user.UserDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA_A = replicaUrl("a");
+    private static final String REPLICA_B = replicaUrl("b");
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        registry.add("spring.replicas.enabled", () -> true);
+        registry.add("spring.replicas.max-lag", () -> "5s");
+        registry.add("spring.replicas.lag-check-interval", () -> "1h");
+        registry.add("spring.replicas.lag-query", () -> "SELECT seconds FROM replica_lag");
+        registry.add("spring.replicas.datasources[0].name", () -> "replica-a");
+        registry.add("spring.replicas.datasources[0].url", () -> REPLICA_A);
+        registry.add("spring.replicas.datasources[0].username", () -> "sa");
+        registry.add("spring.replicas.datasources[1].name", () -> "replica-b");
+        registry.add("spring.replicas.datasources[1].url", () -> REPLICA_B);
+        registry.add("spring.replicas.datasources[1].username", () -> "sa");
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private DataSourceCluster cluster;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    private User owner;
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Replicated");
+        user.setEmail("replicated@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+        first = cardRepository.save(card("4000000000000001"));
+        second = cardRepository.save(card("4000000000000002"));
+
+        replicate(REPLICA_A, 0);
+        replicate(REPLICA_B, 0);
+        cluster.checkReplicationLag();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                AuthenticatedUser.from(owner), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyQueries_ShouldBeServedByReplicas() {
+        primary.update("UPDATE users SET name = 'Renamed' WHERE id = ?", owner.getId());
+        primary.update("UPDATE cards SET balance = 999 WHERE id = ?", first.getId());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(List.of("Replicated"), userNames());
+            assertEquals(0, new BigDecimal("100.00").compareTo(cardService.getCardDto(first.getId()).getBalance()));
+        }
+    }
+
+    @Test
+    void writes_ShouldGoToPrimary() {
+        cardService.transferFundsBetweenOwnCards(new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN));
+
+        assertEquals(0, new BigDecimal("90.00").compareTo(balanceOn(primary, first.getId())));
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceOn(replica(REPLICA_A), first.getId())));
+        assertEquals(0, new BigDecimal("100.00").compareTo(cardService.getCardDto(first.getId()).getBalance()));
+    }
+
+    @Test
+    void readOnlyQueries_ShouldSkipLaggingReplica() {
+        setLag(REPLICA_A, 60);
+        replica(REPLICA_B).update("UPDATE users SET name = 'From B' WHERE id = ?", owner.getId());
+        cluster.checkReplicationLag();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(List.of("From B"), userNames());
+        }
+    }
+
+    @Test
+    void readOnlyQueries_ShouldFallBackToPrimary_WhenAllReplicasLag() {
+        setLag(REPLICA_A, 60);
+        setLag(REPLICA_B, 60);
+        cluster.checkReplicationLag();
+        primary.update("UPDATE users SET name = 'Renamed' WHERE id = ?", owner.getId());
+
+        assertEquals(List.of("Renamed"), userNames());
+    }
+
+    @Test
+    void readOnlyQueries_ShouldFallBackToPrimary_WhenReplicasAreUnreachable() {
+        replica(REPLICA_A).execute("DROP TABLE replica_lag");
+        replica(REPLICA_B).execute("DROP TABLE replica_lag");
+        cluster.checkReplicationLag();
+        primary.update("UPDATE users SET name = 'Renamed' WHERE id = ?", owner.getId());
+
+        assertEquals(List.of("Renamed"), userNames());
+    }
+
+    private List<String> userNames() {
+        return userService.getAllUsers(null).stream().map(UserDto::getName).toList();
+    }
+
+    private void replicate(String url, int lagSeconds) {
+        var replica = replica(url);
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT", String.class).forEach(replica::execute);
+        replica.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_lag VALUES (?)", lagSeconds);
+    }
+
+    private static void setLag(String url, int lagSeconds) {
+        replica(url).update("UPDATE replica_lag SET seconds = ?", lagSeconds);
+    }
+
+    private static BigDecimal balanceOn(JdbcTemplate jdbcTemplate, UUID cardId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM cards WHERE id = ?", BigDecimal.class, cardId);
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+
+    private static String replicaUrl(String name) {
+        return "jdbc:h2:mem:embank-replica-" + name + "-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    private Card card(String number) {
+        return Card.builder()
+                .number(number)
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("100.00"))
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.bankcards.monitoring;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.JwtService;
+import com.example.bankcards.service.LedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    private String userToken;
+    private String adminToken;
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var owner = saveUser("metrics@example.com", Role.USER);
+        userToken = "Bearer " + jwtService.generateAccessToken(owner);
+        adminToken = "Bearer " + jwtService.generateAccessToken(saveUser("admin@example.com", Role.ADMIN));
+
+        first = saveCard("4000000000000001", owner);
+        second = saveCard("4000000000000002", owner);
+    }
+
+    @Test
+    void prometheus_ShouldExposeEndpointLatencyHistograms() throws Exception {
+        mockMvc.perform(get("/api/cards/{id}", first.getId()).header("Authorization", userToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{application=\"bank-cards-api\",error=\"none\",exception=\"none\",method=\"GET\"")))
+                .andExpect(content().string(containsString("uri=\"/api/cards/{id}\"")))
+                .andExpect(content().string(containsString("jwt_verification_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("password_encoder_seconds_bucket")));
+    }
+
+    @Test
+    void prometheus_ShouldExposeTransferAndListingTimers() throws Exception {
+        var request = new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN);
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Authorization", userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/cards").header("Authorization", adminToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("transfer_execution_seconds_bucket")))
+                .andExpect(content().string(containsString("mode=\"OPTIMISTIC\"")))
+                .andExpect(content().string(containsString("outcome=\"SUCCESS\"")))
+                .andExpect(content().string(containsString("card_listing_queries_seconds_bucket")));
+    }
+
+    @Test
+    void metricsEndpoint_ShouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", userToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusAndInfoEndpoints_ShouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", userToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/info"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/info").header("Authorization", adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private User saveUser(String email, Role role) {
+        var user = new User();
+        user.setName("Metrics");
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private Card saveCard(String number, User owner) {
+        var card = cardRepository.save(Card.builder()
+                .number(number)
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("100.00"))
+                .build());
+        ledgerService.recordOpening(card);
+        return card;
+    }
+}
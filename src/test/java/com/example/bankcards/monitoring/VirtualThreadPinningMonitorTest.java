@@ -0,0 +1,75 @@
+package com.example.bankcards.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "virtual-threads"})
+class VirtualThreadPinningMonitorTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> monitor;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Test
+    void profile_ShouldBoundConcurrencyByConnectionPool() throws Exception {
+        var hikari = dataSource.unwrap(HikariDataSource.class);
+
+        assertEquals(20, hikari.getMaximumPoolSize());
+        assertEquals(20, hikari.getMinimumIdle());
+        assertEquals(3000, hikari.getConnectionTimeout());
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void monitor_ShouldStayDisabled_WhenVirtualThreadsAreUnavailable() {
+        assertNull(monitor.getIfAvailable());
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void monitor_ShouldRecordPinnedVirtualThread() throws Exception {
+        assertNotNull(monitor.getIfAvailable());
+        var lock = new Object();
+
+        taskExecutor.submit(() -> {
+            synchronized (lock) {
+                Thread.sleep(50);
+            }
+            return null;
+        }).get(10, TimeUnit.SECONDS);
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.find("jvm.threads.virtual.pinned").timer() == null && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        var pinned = registry.find("jvm.threads.virtual.pinned")
+                .tag("frame", getClass().getName() + ".lambda$monitor_ShouldRecordPinnedVirtualThread$0")
+                .timer();
+        assertNotNull(pinned);
+        assertTrue(pinned.count() >= 1);
+    }
+}
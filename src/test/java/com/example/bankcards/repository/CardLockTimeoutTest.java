@@ -0,0 +1,120 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.transfer.lock-timeout=1s")
+class CardLockTimeoutTest {
+
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(1);
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID cardId;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Locked");
+        user.setEmail("locked@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+
+        cardId = cardRepository.save(Card.builder()
+                .number("4000000000000001")
+                .user(userRepository.save(user))
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .build()).getId();
+    }
+
+    @Test
+    void findByIdForUpdate_ShouldFailWithinLockTimeout_WhenCardStaysLocked() throws Exception {
+        assertLockTimesOut(() -> cardRepository.findByIdForUpdate(cardId));
+    }
+
+    @Test
+    void findAllByIdForUpdate_ShouldFailWithinLockTimeout_WhenCardStaysLocked() throws Exception {
+        assertLockTimesOut(() -> cardRepository.findAllByIdForUpdate(List.of(cardId)));
+    }
+
+    @Test
+    void findByIdForUpdate_ShouldLockCard_WhenNobodyHoldsIt() {
+        var card = new TransactionTemplate(transactionManager).execute(status -> cardRepository.findByIdForUpdate(cardId));
+
+        assertTrue(card.isPresent());
+        assertEquals(cardId, card.get().getId());
+    }
+
+    private void assertLockTimesOut(Runnable lock) throws Exception {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        var lockTaken = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select id from cards where id = ? for update", cardId);
+            lockTaken.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(lockTaken.await(10, TimeUnit.SECONDS));
+
+        try {
+            var started = System.nanoTime();
+            assertThrows(ConcurrencyFailureException.class,
+                    () -> transactionTemplate.executeWithoutResult(status -> lock.run()));
+            var waited = Duration.ofNanos(System.nanoTime() - started);
+
+            assertTrue(waited.compareTo(LOCK_TIMEOUT.minusMillis(100)) >= 0, () -> "Gave up early after " + waited);
+            assertTrue(waited.compareTo(LOCK_TIMEOUT.multipliedBy(3)) < 0, () -> "Waited " + waited);
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
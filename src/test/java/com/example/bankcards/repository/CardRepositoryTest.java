@@ -0,0 +1,137 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.CardNumberCipher;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CardRepositoryTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardNumberCipher cipher;
+
+    private User owner;
+    private UUID firstCardId;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Projected");
+        user.setEmail("projected@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+
+        firstCardId = saveCard("4000000000000001", owner, new BigDecimal("10.00")).getId();
+        saveCard("4000000000000002", owner, new BigDecimal("30.00"));
+        saveCard("4000000000000003", owner, new BigDecimal("20.00"));
+
+        var other = new User();
+        other.setName("Other");
+        other.setEmail("other@example.com");
+        other.setPassword("password");
+        other.setRole(Role.USER);
+        saveCard("4000000000000004", userRepository.save(other), BigDecimal.ONE);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findDtoById_ShouldProjectCardColumnsWithoutLoadingEntities() {
+        var card = cardRepository.findDtoById(firstCardId).orElseThrow();
+
+        assertEquals(firstCardId, card.getId());
+        assertEquals(owner.getId(), card.getUserId());
+        assertEquals("0001", card.getNumber());
+        assertEquals(CardStatus.ACTIVE, card.getStatus());
+        assertEquals(0, new BigDecimal("10.00").compareTo(card.getBalance()));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findDtosByUserId_ShouldPageAndSortOnlyOwnCards() {
+        var page = cardRepository.findDtosByUserId(owner.getId(),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "balance")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertEquals(0, new BigDecimal("30.00").compareTo(page.getContent().get(0).getBalance()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(page.getContent().get(1).getBalance()));
+        assertTrue(page.getContent().stream().allMatch(card -> owner.getId().equals(card.getUserId())));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findById_ShouldNotInitializeOwner() {
+        var card = cardRepository.findById(firstCardId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(card.getUser()));
+        assertEquals(owner.getId(), card.getUser().getId());
+        assertTrue(card.isOwnedBy(owner.getId()));
+    }
+
+    @Test
+    void save_ShouldStoreEncryptedNumberWithBlindIndexInsteadOfPlaintext() {
+        var row = jdbcTemplate.queryForMap(
+                "select * from cards where id = ?", firstCardId);
+
+        assertFalse(row.containsKey("number"));
+        assertEquals("0001", row.get("number_last4"));
+        assertEquals(cipher.hash("4000000000000001"), row.get("number_hash"));
+        assertEquals("4000000000000001", cipher.decrypt((String) row.get("number_encrypted")));
+        assertTrue(cardRepository.existsByNumberHash(cipher.hash("4000000000000001")));
+        assertFalse(cardRepository.existsByNumberHash(cipher.hash("4000000000000009")));
+    }
+
+    private Card saveCard(String number, User user, BigDecimal balance) {
+        return cardRepository.save(Card.builder()
+                .number(number)
+                .user(user)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(balance)
+                .build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.CardEncryptionConfig;
+import com.example.bankcards.entity.Card;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumberCipherTest {
+
+    private static final String NUMBER = "4111111111111111";
+
+    private final CardNumberCipher cipher = new CardNumberCipher(config(
+            "dGVzdC1jYXJkLWVuY3J5cHRpb24ta2V5LTMyLWJ5dGU=",
+            "dGVzdC1jYXJkLW51bWJlci1obWFjLWtleS0zMmJ5dGU="));
+
+    @Test
+    void encrypt_ShouldRoundTripWithFreshIvPerCall() {
+        var first = cipher.encrypt(NUMBER);
+        var second = cipher.encrypt(NUMBER);
+
+        assertNotEquals(first, second);
+        assertFalse(first.contains(NUMBER));
+        assertTrue(first.length() <= 88);
+        assertEquals(NUMBER, cipher.decrypt(first));
+        assertEquals(NUMBER, cipher.decrypt(second));
+    }
+
+    @Test
+    void decrypt_ShouldRejectTamperedCiphertext() {
+        var bytes = Base64.getDecoder().decode(cipher.encrypt(NUMBER));
+        bytes[bytes.length - 1] ^= 1;
+
+        assertThrows(IllegalStateException.class, () -> cipher.decrypt(Base64.getEncoder().encodeToString(bytes)));
+    }
+
+    @Test
+    void hash_ShouldBeDeterministicAndKeyed() {
+        var otherKey = new CardNumberCipher(config(
+                "dGVzdC1jYXJkLWVuY3J5cHRpb24ta2V5LTMyLWJ5dGU=",
+                "b3RoZXItY2FyZC1udW1iZXItaG1hYy1rZXktMzJieXQ="));
+
+        assertEquals(cipher.hash(NUMBER), cipher.hash(NUMBER));
+        assertEquals(64, cipher.hash(NUMBER).length());
+        assertNotEquals(cipher.hash(NUMBER), cipher.hash("4111111111111129"));
+        assertNotEquals(cipher.hash(NUMBER), otherKey.hash(NUMBER));
+    }
+
+    @Test
+    void protect_ShouldFillEncryptedHashAndLastFourDigits() {
+        var card = Card.builder().number(NUMBER).build();
+
+        cipher.protect(card);
+
+        assertEquals("1111", card.getNumberLast4());
+        assertEquals(cipher.hash(NUMBER), card.getNumberHash());
+        assertEquals(NUMBER, cipher.decrypt(card.getNumberEncrypted()));
+    }
+
+    @Test
+    void encrypt_ShouldBeSafeAcrossThreads_WhenThreadsOutnumberPool() throws Exception {
+        var config = config(
+                "dGVzdC1jYXJkLWVuY3J5cHRpb24ta2V5LTMyLWJ5dGU=",
+                "dGVzdC1jYXJkLW51bWJlci1obWFjLWtleS0zMmJ5dGU=");
+        config.setPoolSize(2);
+        var pooled = new CardNumberCipher(config);
+        Set<String> failures = ConcurrentHashMap.newKeySet();
+        var executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            var number = String.format("4000%012d", t);
+            var hash = cipher.hash(number);
+            executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        if (!number.equals(pooled.decrypt(pooled.encrypt(number))) || !hash.equals(pooled.hash(number))) {
+                            failures.add(number);
+                        }
+                    } catch (RuntimeException e) {
+                        failures.add(number + ": " + e.getMessage());
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(failures.isEmpty(), () -> "Corrupted round trips: " + failures);
+    }
+
+    private static CardEncryptionConfig config(String key, String hashKey) {
+        var config = new CardEncryptionConfig();
+        config.setKey(key);
+        config.setHashKey(hashKey);
+        return config;
+    }
+}
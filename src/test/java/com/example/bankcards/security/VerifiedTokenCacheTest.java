@@ -0,0 +1,82 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.JwtCodec;
+import com.example.bankcards.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtConfig jwtConfig;
+    private JwtService jwtService;
+    private SimpleMeterRegistry registry;
+    private VerifiedTokenCache tokenCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("test-secret-key-with-at-least-256-bits-of-entropy");
+        jwtConfig.setAccessTokenExpiration(900);
+        jwtService = spy(new JwtService(jwtConfig, new JwtCodec(jwtConfig)));
+        registry = new SimpleMeterRegistry();
+        tokenCache = new VerifiedTokenCache(jwtService, jwtConfig, registry);
+
+        user = new User(7L, "user@example.com", Role.USER);
+        user.setName("User");
+    }
+
+    @Test
+    void verify_ShouldParseTokenOnce_WhenSameTokenRepeated() {
+        var token = jwtService.generateAccessToken(user).toString();
+
+        var first = tokenCache.verify(token);
+        var second = tokenCache.verify(token);
+
+        assertEquals(7L, first.principal().id());
+        assertEquals("user@example.com", first.principal().email());
+        assertEquals(Role.USER, first.principal().role());
+        assertSame(first, second);
+        verify(jwtService, times(1)).parseToken(token);
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void verify_ShouldNotCacheInvalidTokens() {
+        var foreignConfig = new JwtConfig();
+        foreignConfig.setSecret("another-secret-key-with-at-least-256-bits-of-entropy");
+        foreignConfig.setAccessTokenExpiration(900);
+        var token = new JwtService(foreignConfig, new JwtCodec(foreignConfig)).generateAccessToken(user).toString();
+
+        assertNull(tokenCache.verify(token));
+        assertNull(tokenCache.verify(token));
+
+        verify(jwtService, times(2)).parseToken(token);
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredTokens() {
+        jwtConfig.setAccessTokenExpiration(-1);
+        var token = jwtService.generateAccessToken(user).toString();
+
+        assertNull(tokenCache.verify(token));
+    }
+
+    @Test
+    void verify_ShouldAlwaysParse_WhenCacheDisabled() {
+        jwtConfig.getTokenCache().setEnabled(false);
+        var token = jwtService.generateAccessToken(user).toString();
+
+        assertNotNull(tokenCache.verify(token));
+        assertNotNull(tokenCache.verify(token));
+
+        verify(jwtService, times(2)).parseToken(token);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.auth.LoginRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.login.bcrypt-strength=5")
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void loginAsync_ShouldRehashPassword_WhenStoredCostIsBelowConfigured() throws Exception {
+        var user = saveUser(new BCryptPasswordEncoder(4).encode("password"));
+
+        var response = authService.loginAsync(loginRequest("password")).get(10, TimeUnit.SECONDS);
+
+        assertNotNull(response.getAccessToken());
+        var rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$05$"), rehashed);
+        assertTrue(passwordEncoder.matches("password", rehashed));
+
+        authService.loginAsync(loginRequest("password")).get(10, TimeUnit.SECONDS);
+        assertEquals(rehashed, userRepository.findById(user.getId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void loginAsync_ShouldRehashPassword_WhenStoredCostIsAboveConfigured() throws Exception {
+        var user = saveUser(new BCryptPasswordEncoder(6).encode("password"));
+
+        authService.loginAsync(loginRequest("password")).get(10, TimeUnit.SECONDS);
+
+        var rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$05$"), rehashed);
+        assertTrue(passwordEncoder.matches("password", rehashed));
+    }
+
+    @Test
+    void loginAsync_ShouldKeepPassword_WhenStoredCostMatchesConfigured() throws Exception {
+        var hash = passwordEncoder.encode("password");
+        var user = saveUser(hash);
+
+        authService.loginAsync(loginRequest("password")).get(10, TimeUnit.SECONDS);
+
+        assertEquals(hash, userRepository.findById(user.getId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void loginAsync_ShouldFailWithBadCredentials_WhenPasswordIsWrong() {
+        saveUser(passwordEncoder.encode("password"));
+
+        var future = authService.loginAsync(loginRequest("wrong"));
+
+        var exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
+    }
+
+    private User saveUser(String passwordHash) {
+        var user = new User();
+        user.setName("Login");
+        user.setEmail("login@example.com");
+        user.setPassword(passwordHash);
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+
+    private static LoginRequest loginRequest(String password) {
+        var request = new LoginRequest();
+        request.setEmail("login@example.com");
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.config.TransferMode;
+import com.example.bankcards.dto.card.UpdateCardStatusRequest;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.NotEnoughFundsException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.support.QueryBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CardBalanceCacheTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransferConfig transferConfig;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(user("owner@example.com"));
+        first = cardRepository.save(card("4000000000000001"));
+        second = cardRepository.save(card("4000000000000002"));
+        ledgerService.recordOpening(first);
+        ledgerService.recordOpening(second);
+        authenticate(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferConfig.setMode(TransferMode.OPTIMISTIC);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getCardBalance_ShouldServeRepeatedReadsWithoutQueries() {
+        assertBalance(first, "100.00");
+
+        var balance = QueryBudget.atMost(0, () -> cardService.getCardBalance(first.getId()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(balance));
+    }
+
+    @Test
+    void transfer_ShouldWriteThroughBalancesOnCommit() {
+        assertBalance(first, "100.00");
+        assertBalance(second, "100.00");
+
+        cardService.transferFundsBetweenOwnCards(new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN));
+
+        QueryBudget.atMost(0, () -> {
+            assertBalance(first, "90.00");
+            assertBalance(second, "110.00");
+        });
+    }
+
+    @Test
+    void failedTransfer_ShouldLeaveCachedBalancesUntouched() {
+        assertBalance(first, "100.00");
+
+        assertThrows(NotEnoughFundsException.class, () -> cardService.transferFundsBetweenOwnCards(
+                new TransferRequest(first.getId(), second.getId(), new BigDecimal("500.00"))));
+
+        assertBalance(first, "100.00");
+    }
+
+    @Test
+    void atomicTransfer_ShouldRefreshBalancesAfterCommit() {
+        transferConfig.setMode(TransferMode.ATOMIC);
+        assertBalance(first, "100.00");
+
+        cardService.transferFundsBetweenOwnCards(new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN));
+
+        assertBalance(first, "90.00");
+        assertBalance(second, "110.00");
+    }
+
+    @Test
+    void ledgerTransfer_ShouldRefreshBalancesWhenEntriesAreApplied() {
+        transferConfig.setMode(TransferMode.LEDGER);
+        assertBalance(first, "100.00");
+
+        cardService.transferFundsBetweenOwnCards(new TransferRequest(first.getId(), second.getId(), BigDecimal.TEN));
+        assertBalance(first, "100.00");
+
+        ledgerService.applyPending();
+        assertBalance(first, "90.00");
+        assertBalance(second, "110.00");
+    }
+
+    @Test
+    void transfer_ShouldReplaceCachedBalanceWithCommittedOne() {
+        assertBalance(first, "100.00");
+        jdbcTemplate.update("UPDATE cards SET balance = 1 WHERE id = ?", first.getId());
+
+        cardService.transferFundsBetweenOwnCards(new TransferRequest(second.getId(), first.getId(), BigDecimal.TEN));
+
+        assertBalance(first, "11.00");
+    }
+
+    @Test
+    void statusChangeAndRemoval_ShouldUpdateCache() {
+        assertBalance(first, "100.00");
+
+        cardService.updateCardStatus(first.getId(), new UpdateCardStatusRequest(CardStatus.BLOCKED));
+        assertBalance(first, "100.00");
+
+        cardService.removeCard(first.getId());
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardBalance(first.getId()));
+    }
+
+    @Test
+    void getCardBalance_ShouldRejectCachedCardOfAnotherUser() {
+        assertBalance(first, "100.00");
+        authenticate(userRepository.save(user("other@example.com")));
+
+        assertThrows(AccessDeniedException.class, () -> cardService.getCardBalance(first.getId()));
+    }
+
+    private void assertBalance(Card card, String expected) {
+        assertEquals(0, new BigDecimal(expected).compareTo(cardService.getCardBalance(card.getId())),
+                () -> "Unexpected balance of card " + card.getId());
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                AuthenticatedUser.from(user), null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))));
+    }
+
+    private static User user(String email) {
+        var user = new User();
+        user.setName("Balance");
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Card card(String number) {
+        return Card.builder()
+                .number(number)
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("100.00"))
+                .build();
+    }
+}
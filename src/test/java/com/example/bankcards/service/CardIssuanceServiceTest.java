@@ -0,0 +1,152 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.BulkCreateCardRequest;
+import com.example.bankcards.dto.card.CardIssueResult;
+import com.example.bankcards.dto.card.CardIssueStatus;
+import com.example.bankcards.dto.card.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CardNumberCipher;
+import com.example.bankcards.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CardIssuanceServiceTest {
+
+    private static final int CARDS = 1200;
+
+    @Autowired
+    private CardIssuanceService cardIssuanceService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private CardNumberCipher cipher;
+
+    @Autowired
+    private CardNumberFilter numberFilter;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Corporate");
+        user.setEmail("corporate@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+    }
+
+    @Test
+    void createCards_ShouldInsertAllCardsWithConstantNumberOfStatements() {
+        var requests = IntStream.range(0, CARDS)
+                .mapToObj(i -> cardRequest(String.format("4000%012d", i), owner.getId()))
+                .toList();
+
+        var response = QueryBudget.atMost(5, () ->
+                cardIssuanceService.createCards(new BulkCreateCardRequest(requests)));
+
+        assertEquals(CARDS, response.getCreated());
+        assertTrue(response.getResults().stream().allMatch(result -> result.getStatus() == CardIssueStatus.CREATED));
+        assertEquals(CARDS, cardRepository.count());
+
+        var card = cardRepository.findById(response.getResults().get(0).getCardId()).orElseThrow();
+        assertEquals("0000", card.getNumberLast4());
+        assertEquals(cipher.hash("4000000000000000"), card.getNumberHash());
+        assertEquals("4000000000000000", cipher.decrypt(card.getNumberEncrypted()));
+        assertEquals(CardStatus.ACTIVE, card.getStatus());
+        assertEquals(0L, card.getVersion());
+        assertTrue(card.isOwnedBy(owner.getId()));
+    }
+
+    @Test
+    void createCards_ShouldReportFailuresPerItemAndCreateTheRest() {
+        cardIssuanceService.createCards(new BulkCreateCardRequest(List.of(
+                cardRequest("4000000000000001", owner.getId()))));
+
+        var response = cardIssuanceService.createCards(new BulkCreateCardRequest(List.of(
+                cardRequest("4000000000000001", owner.getId()),
+                cardRequest("4000000000000002", owner.getId()),
+                cardRequest("4000000000000003", owner.getId() + 1000),
+                cardRequest("4000000000000002", owner.getId())
+        )));
+
+        assertEquals(1, response.getCreated());
+        var results = response.getResults();
+        assertFailed(results.get(0), "Card number is already registered.");
+        assertEquals(CardIssueStatus.CREATED, results.get(1).getStatus());
+        assertNotNull(results.get(1).getCardId());
+        assertFailed(results.get(2), "User not found");
+        assertFailed(results.get(3), "Card number is already registered.");
+
+        assertEquals(2, cardRepository.count());
+        assertTrue(cardRepository.existsById(results.get(1).getCardId()));
+    }
+
+    @Test
+    void createCards_ShouldMarkItemFailed_WhenNumberIsRegisteredConcurrently() {
+        numberFilter.rebuild();
+        cardRepository.save(Card.builder()
+                .number("4000000000000011")
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .build());
+
+        var response = cardIssuanceService.createCards(new BulkCreateCardRequest(List.of(
+                cardRequest("4000000000000011", owner.getId()),
+                cardRequest("4000000000000012", owner.getId())
+        )));
+
+        assertEquals(1, response.getCreated());
+        assertFailed(response.getResults().get(0), "Card number is already registered.");
+        assertEquals(CardIssueStatus.CREATED, response.getResults().get(1).getStatus());
+        assertEquals(2, cardRepository.count());
+        assertTrue(numberFilter.exists(cipher.hash("4000000000000012"), cardRepository::existsByNumberHash));
+    }
+
+    private static void assertFailed(CardIssueResult result, String error) {
+        assertEquals(CardIssueStatus.FAILED, result.getStatus());
+        assertNull(result.getCardId());
+        assertEquals(error, result.getError());
+    }
+
+    private static CreateCardRequest cardRequest(String number, Long userId) {
+        return CreateCardRequest.builder()
+                .number(number)
+                .userId(userId)
+                .expirationDate(LocalDate.now().plusYears(4))
+                .balance(new BigDecimal("100.00"))
+                .build();
+    }
+}
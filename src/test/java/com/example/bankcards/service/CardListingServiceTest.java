@@ -0,0 +1,236 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.exception.InvalidCursorException;
+import com.example.bankcards.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.card-listing.max-page-size=3",
+        "spring.card-listing.export-fetch-size=2"
+})
+class CardListingServiceTest {
+
+    private static final int CARDS = 7;
+
+    @Autowired
+    private CardListingService cardListingService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private User owner;
+    private List<UUID> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Lister");
+        user.setEmail("lister@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+
+        cardIds = IntStream.range(0, CARDS)
+                .mapToObj(i -> cardRepository.save(Card.builder()
+                        .number("400000000000000" + i)
+                        .user(owner)
+                        .expirationDate(LocalDate.now().plusYears(1 + i % 3))
+                        .status(i % 2 == 0 ? CardStatus.ACTIVE : CardStatus.BLOCKED)
+                        .balance(BigDecimal.valueOf(i % 2 * 10))
+                        .build()))
+                .map(Card::getId)
+                .toList();
+
+        var other = new User();
+        other.setName("Other");
+        other.setEmail("other@example.com");
+        other.setPassword("password");
+        other.setRole(Role.USER);
+        var stranger = userRepository.save(other);
+        cardRepository.save(Card.builder()
+                .number("4999999999999999")
+                .user(stranger)
+                .expirationDate(LocalDate.now().plusYears(1))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ONE)
+                .build());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                AuthenticatedUser.from(owner),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + owner.getRole()))
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getCards_ShouldWalkAllCardsOnceByCursor() {
+        var seen = new ArrayList<UUID>();
+        UUID cursor = null;
+        int pages = 0;
+
+        do {
+            var page = cardListingService.getCards(cursor, 100);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(card -> seen.add(card.getId()));
+            cursor = page.getNextCursor() == null ? null : UUID.fromString(page.getNextCursor());
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(CARDS + 1, seen.size());
+        assertEquals(CARDS + 1, seen.stream().distinct().count());
+        assertTrue(seen.containsAll(cardIds));
+    }
+
+    @Test
+    void getCards_ShouldReturnNoCursor_WhenLastPageIsExactlyFull() {
+        var first = cardListingService.getCards(null, 3);
+        var second = cardListingService.getCards(UUID.fromString(first.getNextCursor()), 3);
+        var last = cardListingService.getCards(UUID.fromString(second.getNextCursor()), 2);
+
+        assertEquals(2, last.getItems().size());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getCards_ShouldMaskNumbers() {
+        var page = cardListingService.getCards(null, 1);
+
+        assertTrue(page.getItems().get(0).getNumber().startsWith("**** **** **** "));
+    }
+
+    @Test
+    void getCards_ShouldCarryVersion() {
+        var page = cardListingService.getCards(null, CARDS);
+
+        assertTrue(page.getItems().stream().allMatch(card -> Long.valueOf(0L).equals(card.getVersion())));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "expirationDate, ASC",
+            "expirationDate, DESC",
+            "balance, ASC",
+            "balance, DESC",
+            "status, ASC",
+            "status, DESC"
+    })
+    void scrollUserCards_ShouldWalkOwnCardsInSortOrder(String property, Sort.Direction direction) {
+        var sort = Sort.by(direction, property);
+        var seen = new ArrayList<CardDto>();
+        String cursor = null;
+
+        do {
+            var page = cardListingService.scrollUserCards(sort, 2, cursor);
+            assertTrue(page.getItems().size() <= 2);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(CARDS, seen.size());
+        assertEquals(Set.copyOf(cardIds), seen.stream().map(CardDto::getId).collect(Collectors.toSet()));
+
+        Comparator<CardDto> expected = switch (property) {
+            case "balance" -> Comparator.comparing(CardDto::getBalance);
+            case "status" -> Comparator.comparing(card -> card.getStatus().name());
+            default -> Comparator.comparing(CardDto::getExpirationDate);
+        };
+        if (direction.isDescending()) {
+            expected = expected.reversed();
+        }
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(expected.compare(seen.get(i - 1), seen.get(i)) <= 0, "Out of order at " + i);
+        }
+    }
+
+    @Test
+    void scrollUserCards_ShouldKeepSortFromCursor() {
+        var first = cardListingService.scrollUserCards(Sort.by(Sort.Direction.DESC, "balance"), 3, null);
+        var next = cardListingService.scrollUserCards(Sort.by("status"), 3, first.getNextCursor());
+
+        var balances = new ArrayList<BigDecimal>();
+        first.getItems().forEach(card -> balances.add(card.getBalance()));
+        next.getItems().forEach(card -> balances.add(card.getBalance()));
+        for (int i = 1; i < balances.size(); i++) {
+            assertTrue(balances.get(i - 1).compareTo(balances.get(i)) >= 0);
+        }
+    }
+
+    @Test
+    void scrollUserCards_ShouldFallBackToExpirationDate_WhenSortFieldIsNotAllowed() {
+        var page = cardListingService.scrollUserCards(Sort.by("number"), CARDS, null);
+
+        var dates = page.getItems().stream().map(CardDto::getExpirationDate).toList();
+        assertEquals(dates.stream().sorted().toList(), dates);
+    }
+
+    @Test
+    void scrollUserCards_ShouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> cardListingService.scrollUserCards(Sort.unsorted(), 2, "not-a-cursor"));
+        assertThrows(InvalidCursorException.class,
+                () -> cardListingService.scrollUserCards(Sort.unsorted(), 2, "bnVtYmVyLEFTQyx4LHk"));
+    }
+
+    @Test
+    void exportCards_ShouldStreamEveryCardMasked() {
+        var exported = new ArrayList<CardDto>();
+
+        cardListingService.exportCards(exported::add);
+
+        assertEquals(CARDS + 1, exported.size());
+        assertTrue(exported.stream().map(CardDto::getId).toList().containsAll(cardIds));
+        assertTrue(exported.stream().allMatch(card -> card.getNumber().startsWith("**** ")));
+        assertTrue(exported.stream().allMatch(card -> card.getUserId() != null));
+        assertTrue(exported.stream().allMatch(card -> card.getVersion() != null));
+    }
+}
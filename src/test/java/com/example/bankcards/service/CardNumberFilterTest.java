@@ -0,0 +1,194 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardNumberFilterConfig;
+import com.example.bankcards.dto.card.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.DuplicateCardException;
+import com.example.bankcards.repository.CardListingRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CardNumberCipher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.card-number-filter.async-load=false")
+class CardNumberFilterTest {
+
+    @Autowired
+    private CardNumberFilter numberFilter;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardListingRepository cardListingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CardNumberCipher cipher;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Filter");
+        user.setEmail("filter@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+    }
+
+    @Test
+    void filter_ShouldBeLoadedAndReportedOnStartup() {
+        assertTrue(numberFilter.isReady());
+        assertEquals(1, meterRegistry.get("card.number.filter.load").timer().count());
+        assertEquals(4_792_536, meterRegistry.get("card.number.filter.memory").gauge().value(), 8);
+        assertTrue(meterRegistry.get("card.number.filter.expected.fpp").gauge().value() < 0.01);
+    }
+
+    @Test
+    void load_ShouldStreamExistingNumbers() {
+        saveCardBypassingService("4000000000000001");
+        var config = new CardNumberFilterConfig();
+        config.setAsyncLoad(false);
+        config.setExpectedInsertions(1_000);
+        config.setFetchSize(1);
+        var registry = new SimpleMeterRegistry();
+        var filter = new CardNumberFilter(cardListingRepository, config, transactionManager, registry);
+
+        filter.loadOnStartup();
+
+        assertTrue(filter.isReady());
+        assertEquals(1.0, registry.get("card.number.filter.elements").gauge().value());
+        assertTrue(filter.exists(cipher.hash("4000000000000001"), hash -> true));
+        assertFalse(filter.exists(cipher.hash("4000000000000002"), hash -> fail("Lookup for a definitely new number")));
+    }
+
+    @Test
+    void createCard_ShouldSkipLookupForNewNumberAndRememberIt() {
+        var number = "4000000000000011";
+        var hash = cipher.hash(number);
+        assertFalse(numberFilter.exists(hash, h -> fail("Lookup for a definitely new number")));
+
+        cardService.createCard(cardRequest(number));
+
+        assertTrue(numberFilter.exists(hash, cardRepository::existsByNumberHash));
+        assertThrows(DuplicateCardException.class, () -> cardService.createCard(cardRequest(number)));
+    }
+
+    @Test
+    void createCard_ShouldNotRememberNumber_WhenTransactionRollsBack() {
+        var number = "4000000000000012";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cardService.createCard(cardRequest(number));
+            status.setRollbackOnly();
+        });
+
+        assertFalse(numberFilter.exists(cipher.hash(number), h -> fail("Lookup for a definitely new number")));
+    }
+
+    @Test
+    void removeCard_ShouldKeepNumberUntilRebuild() {
+        var number = "4000000000000021";
+        var hash = cipher.hash(number);
+        var card = cardService.createCard(cardRequest(number));
+
+        cardService.removeCard(card.getId());
+
+        assertFalse(numberFilter.exists(hash, cardRepository::existsByNumberHash));
+
+        numberFilter.rebuild();
+
+        assertFalse(numberFilter.exists(hash, h -> fail("Lookup for a definitely new number")));
+    }
+
+    @Test
+    void rebuild_ShouldPickUpNumbersIssuedElsewhere() {
+        var number = "4000000000000022";
+        saveCardBypassingService(number);
+        var before = meterRegistry.get("card.number.filter.load").timer().count();
+
+        numberFilter.rebuild();
+
+        assertEquals(before + 1, meterRegistry.get("card.number.filter.load").timer().count());
+        assertTrue(numberFilter.exists(cipher.hash(number), cardRepository::existsByNumberHash));
+    }
+
+    @Test
+    void createCard_ShouldFallBackToConstraint_WhenFilterMissesNumber() {
+        saveCardBypassingService("4000000000000031");
+
+        assertThrows(DuplicateCardException.class, () -> cardService.createCard(cardRequest("4000000000000031")));
+        assertEquals(1, cardRepository.count());
+    }
+
+    @Test
+    void findExisting_ShouldCountFalsePositives() {
+        var number = "4000000000000041";
+        numberFilter.addAfterCommit(List.of(number));
+        var before = meterRegistry.get("card.number.filter.false.positives").counter().count();
+
+        assertEquals(Set.of(), numberFilter.findExisting(List.of(number), numbers -> Set.of()));
+
+        assertEquals(before + 1, meterRegistry.get("card.number.filter.false.positives").counter().count());
+    }
+
+    private void saveCardBypassingService(String number) {
+        cardRepository.save(Card.builder()
+                .number(number)
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
+
+    private CreateCardRequest cardRequest(String number) {
+        return CreateCardRequest.builder()
+                .number(number)
+                .userId(owner.getId())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .balance(new BigDecimal("100.00"))
+                .build();
+    }
+}
@@ -1,30 +1,43 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.CardEncryptionConfig;
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.config.TransferMode;
 import com.example.bankcards.dto.card.CardDto;
 import com.example.bankcards.dto.card.CreateCardRequest;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
 import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.transfer.TransferStatus;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BatchTransferRejectedException;
+import com.example.bankcards.exception.CardHasPendingTransfersException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.DuplicateCardException;
 import com.example.bankcards.exception.IllegalTransferException;
 import com.example.bankcards.exception.NotEnoughFundsException;
 import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardBalance;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.util.CardNumberMasker;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.CardNumberCipher;
+import com.example.bankcards.util.CardNumberCodec;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
@@ -51,7 +64,25 @@ class CardServiceTest {
     private CardMapper cardMapper;
 
     @Mock
-    private CardNumberMasker cardNumberMasker;
+    private CardNumberCodec cardNumberCodec;
+
+    @Spy
+    private TransferConfig transferConfig = new TransferConfig();
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private CardBalanceCache balanceCache;
+
+    @Mock
+    private CardNumberFilter numberFilter;
+
+    @Spy
+    private CardNumberCipher cardNumberCipher = new CardNumberCipher(encryptionConfig());
 
     @InjectMocks
     private CardService cardService;
@@ -84,6 +115,9 @@ class CardServiceTest {
                 .balance(new BigDecimal("500.00"))
                 .build();
 
+        cardNumberCipher.protect(card1);
+        cardNumberCipher.protect(card2);
+
         cardDto1 = CardDto.builder()
                 .id(card1.getId())
                 .number("**** **** **** 5678")
@@ -103,61 +137,31 @@ class CardServiceTest {
                 .build();
     }
 
-    @Test
-    void getAllCards_ShouldReturnAllCardsWithMaskedNumbers() {
-        List<Card> cards = Arrays.asList(card1, card2);
-        when(cardRepository.findAll()).thenReturn(cards);
-        when(cardMapper.toDto(card1)).thenReturn(cardDto1);
-        when(cardMapper.toDto(card2)).thenReturn(cardDto2);
-        when(cardNumberMasker.mask(cardDto1.getNumber())).thenReturn("**** **** **** 5678");
-        when(cardNumberMasker.mask(cardDto2.getNumber())).thenReturn("**** **** **** 4321");
-
-        List<CardDto> result = cardService.getAllCards();
-
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("**** **** **** 5678", result.get(0).getNumber());
-        assertEquals("**** **** **** 4321", result.get(1).getNumber());
-        verify(cardRepository, times(1)).findAll();
-        verify(cardMapper, times(2)).toDto(any(Card.class));
-        verify(cardNumberMasker, times(2)).mask(anyString());
-    }
-
-    @Test
-    void getAllCards_ShouldReturnEmptyList_WhenNoCards() {
-        when(cardRepository.findAll()).thenReturn(Collections.emptyList());
-
-        List<CardDto> result = cardService.getAllCards();
-
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(cardRepository, times(1)).findAll();
-    }
-
     @Test
     void getUserCards_ShouldReturnPaginatedUserCards() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Card> cardPage = new PageImpl<>(Collections.singletonList(card1), pageable, 1);
+        Page<CardDto> cardPage = new PageImpl<>(Collections.singletonList(cardDto1), pageable, 1);
 
-        when(authService.getCurrentUser()).thenReturn(user);
-        when(cardRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(cardPage);
-        when(cardMapper.toDto(card1)).thenReturn(cardDto1);
-        when(cardNumberMasker.mask(anyString())).thenReturn("**** **** **** 5678");
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findDtosByUserId(user.getId(), pageable)).thenReturn(cardPage);
+        when(cardNumberCodec.mask(anyString())).thenReturn("**** **** **** 5678");
 
         Page<CardDto> result = cardService.getUserCards(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(cardDto1.getId(), result.getContent().get(0).getId());
-        verify(authService, times(1)).getCurrentUser();
-        verify(cardRepository, times(1)).findAll(any(Specification.class), eq(pageable));
+        assertEquals("**** **** **** 5678", result.getContent().get(0).getNumber());
+        verify(authService, times(1)).getCurrentPrincipal();
+        verify(cardRepository, times(1)).findDtosByUserId(user.getId(), pageable);
+        verify(cardMapper, never()).toDto(any(Card.class));
     }
 
     @Test
     void getCardDto_ShouldThrowAccessDeniedException_WhenUserNotOwnerAndNotAdmin() {
         User otherUser = new User(999L, "some@mail.ru", Role.USER);
-        when(authService.getCurrentUser()).thenReturn(otherUser);
-        when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(otherUser));
+        when(cardRepository.findDtoById(card1.getId())).thenReturn(Optional.of(cardDto1));
 
         assertThrows(AccessDeniedException.class, () ->
                 cardService.getCardDto(card1.getId()));
@@ -166,7 +170,7 @@ class CardServiceTest {
     @Test
     void getCardDto_ShouldThrowCardNotFoundException_WhenCardNotFound() {
         UUID nonExistentId = UUID.randomUUID();
-        when(cardRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(cardRepository.findDtoById(nonExistentId)).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () ->
                 cardService.getCardDto(nonExistentId));
@@ -174,14 +178,30 @@ class CardServiceTest {
 
     @Test
     void getCardBalance_ShouldReturnCorrectBalance() {
-        when(authService.getCurrentUser()).thenReturn(user);
-        when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
-        when(cardMapper.toDto(card1)).thenReturn(cardDto1);
-        when(cardNumberMasker.mask(anyString())).thenReturn("**** **** **** 5678");
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(balanceCache.find(card1.getId())).thenReturn(Optional.of(CardBalance.of(card1)));
 
         BigDecimal result = cardService.getCardBalance(card1.getId());
 
         assertEquals(new BigDecimal("1000.00"), result);
+        verifyNoInteractions(cardRepository, cardMapper, cardNumberCodec);
+    }
+
+    @Test
+    void getCardBalance_ShouldThrowAccessDenied_WhenCardBelongsToAnotherUser() {
+        var otherUser = new User(2L, "other@example.com", Role.USER);
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(otherUser));
+        when(balanceCache.find(card1.getId())).thenReturn(Optional.of(CardBalance.of(card1)));
+
+        assertThrows(AccessDeniedException.class, () -> cardService.getCardBalance(card1.getId()));
+    }
+
+    @Test
+    void getCardBalance_ShouldThrowNotFound_WhenCardDoesNotExist() {
+        var id = UUID.randomUUID();
+        when(balanceCache.find(id)).thenReturn(Optional.empty());
+
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardBalance(id));
     }
 
     @Test
@@ -210,21 +230,26 @@ class CardServiceTest {
                 .balance(BigDecimal.ZERO)
                 .build();
 
-        when(cardRepository.existsByNumber(request.getNumber())).thenReturn(false);
+        var numberHash = cardNumberCipher.hash(request.getNumber());
+        when(numberFilter.exists(eq(numberHash), any())).thenReturn(false);
         when(userService.findUserById(user.getId())).thenReturn(user);
         when(cardMapper.toEntity(request)).thenReturn(newCard);
-        when(cardRepository.save(newCard)).thenReturn(newCard);
+        when(cardRepository.saveAndFlush(newCard)).thenReturn(newCard);
         when(cardMapper.toDto(newCard)).thenReturn(expectedDto);
-        when(cardNumberMasker.mask(expectedDto.getNumber())).thenReturn("**** **** **** 4444");
+        when(cardNumberCodec.mask(expectedDto.getNumber())).thenReturn("**** **** **** 4444");
 
         CardDto result = cardService.createCard(request);
 
         assertNotNull(result);
         assertEquals(newCard.getId(), result.getId());
         assertEquals("**** **** **** 4444", result.getNumber());
-        verify(cardRepository, times(1)).existsByNumber(request.getNumber());
+        assertEquals(numberHash, newCard.getNumberHash());
+        assertEquals("4444", newCard.getNumberLast4());
+        assertEquals(request.getNumber(), cardNumberCipher.decrypt(newCard.getNumberEncrypted()));
+        verify(numberFilter, times(1)).exists(eq(numberHash), any());
+        verify(numberFilter, times(1)).addAfterCommit(List.of(numberHash));
         verify(userService, times(1)).findUserById(user.getId());
-        verify(cardRepository, times(1)).save(newCard);
+        verify(cardRepository, times(1)).saveAndFlush(newCard);
     }
 
     @Test
@@ -234,27 +259,64 @@ class CardServiceTest {
                 .userId(user.getId())
                 .build();
 
-        when(cardRepository.existsByNumber(request.getNumber())).thenReturn(true);
+        when(cardMapper.toEntity(request)).thenReturn(Card.builder().number(request.getNumber()).build());
+        when(numberFilter.exists(eq(cardNumberCipher.hash(request.getNumber())), any())).thenReturn(true);
 
         assertThrows(DuplicateCardException.class, () ->
                 cardService.createCard(request));
-        verify(cardRepository, never()).save(any(Card.class));
+        verify(userService, never()).findUserById(any());
+        verify(cardRepository, never()).saveAndFlush(any(Card.class));
+    }
+
+    @Test
+    void createCard_ShouldThrowDuplicateCardException_WhenConstraintRejectsNumber() {
+        CreateCardRequest request = CreateCardRequest.builder()
+                .number("1111222233334444")
+                .userId(user.getId())
+                .build();
+        Card newCard = Card.builder()
+                .number(request.getNumber())
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .build();
+
+        when(userService.findUserById(user.getId())).thenReturn(user);
+        when(cardMapper.toEntity(request)).thenReturn(newCard);
+        when(cardRepository.saveAndFlush(newCard)).thenThrow(new DataIntegrityViolationException("uk_cards_number",
+                new ConstraintViolationException("uk_cards_number", null, null,
+                        ConstraintViolationException.ConstraintKind.UNIQUE, "uk_cards_number")));
+
+        assertThrows(DuplicateCardException.class, () ->
+                cardService.createCard(request));
+        verify(ledgerService, never()).recordOpening(any());
     }
 
     @Test
     void removeCard_ShouldDeleteCard_WithExistingCard() {
-        when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
+        when(cardRepository.findByIdForUpdate(card1.getId())).thenReturn(Optional.of(card1));
 
         cardService.removeCard(card1.getId());
 
-        verify(cardRepository, times(1)).findById(card1.getId());
+        verify(cardRepository, times(1)).findByIdForUpdate(card1.getId());
         verify(cardRepository, times(1)).delete(card1);
+        verifyNoInteractions(numberFilter);
+    }
+
+    @Test
+    void removeCard_ShouldRejectCard_WithPendingLedgerEntries() {
+        when(cardRepository.findByIdForUpdate(card1.getId())).thenReturn(Optional.of(card1));
+        when(ledgerService.hasPending(card1.getId())).thenReturn(true);
+
+        assertThrows(CardHasPendingTransfersException.class, () -> cardService.removeCard(card1.getId()));
+
+        verify(cardRepository, never()).delete(any(Card.class));
+        verifyNoInteractions(numberFilter);
     }
 
     @Test
     void removeCard_ShouldThrowCardNotFoundException_WhenCardNotFound() {
         UUID nonExistentId = UUID.randomUUID();
-        when(cardRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(cardRepository.findByIdForUpdate(nonExistentId)).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () ->
                 cardService.removeCard(nonExistentId));
@@ -269,7 +331,7 @@ class CardServiceTest {
                 .amount(new BigDecimal("100.00"))
                 .build();
 
-        when(authService.getCurrentUser()).thenReturn(user);
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
         when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
         when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
 
@@ -288,7 +350,7 @@ class CardServiceTest {
                 .amount(new BigDecimal("2000.00"))
                 .build();
 
-        when(authService.getCurrentUser()).thenReturn(user);
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
         when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
         when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
 
@@ -306,7 +368,7 @@ class CardServiceTest {
                 .amount(new BigDecimal("100.00"))
                 .build();
 
-        when(authService.getCurrentUser()).thenReturn(user);
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
         when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
         when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
 
@@ -324,7 +386,7 @@ class CardServiceTest {
                 .amount(new BigDecimal("100.00"))
                 .build();
 
-        when(authService.getCurrentUser()).thenReturn(user);
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
         when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
         when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
 
@@ -355,7 +417,7 @@ class CardServiceTest {
                 .amount(new BigDecimal("100.00"))
                 .build();
 
-        when(authService.getCurrentUser()).thenReturn(otherUser);
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(otherUser));
         when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
         when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
 
@@ -363,4 +425,205 @@ class CardServiceTest {
                 cardService.transferFundsBetweenOwnCards(request));
         verify(cardRepository, never()).saveAll(anyList());
     }
-}
\ No newline at end of file
+
+    @Test
+    void transferFundsBetweenOwnCards_ShouldLockCardsInIdOrder_InPessimisticMode() {
+        transferConfig.setMode(TransferMode.PESSIMISTIC);
+        Card lower = card1;
+        Card higher = card2;
+        lower.setId(UUID.fromString("7fffffff-0000-0000-0000-000000000000"));
+        higher.setId(UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        TransferRequest request = TransferRequest.builder()
+                .fromCard(higher.getId())
+                .toCard(lower.getId())
+                .amount(new BigDecimal("100.00"))
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findByIdForUpdate(lower.getId())).thenReturn(Optional.of(lower));
+        when(cardRepository.findByIdForUpdate(higher.getId())).thenReturn(Optional.of(higher));
+
+        cardService.transferFundsBetweenOwnCards(request);
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findByIdForUpdate(lower.getId());
+        inOrder.verify(cardRepository).findByIdForUpdate(higher.getId());
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void transferFundsBetweenOwnCards_ShouldUpdateBothCardsInOneStatement_InAtomicMode() {
+        transferConfig.setMode(TransferMode.ATOMIC);
+        TransferRequest request = TransferRequest.builder()
+                .fromCard(card1.getId())
+                .toCard(card2.getId())
+                .amount(new BigDecimal("100.00"))
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.transferBalance(card1.getId(), card2.getId(), request.getAmount(),
+                user.getId(), false, CardStatus.BLOCKED)).thenReturn(2);
+
+        cardService.transferFundsBetweenOwnCards(request);
+
+        verify(cardRepository, never()).findById(any());
+        verify(cardRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void transferFundsBetweenOwnCards_ShouldThrowNotEnoughFundsException_WhenAtomicUpdateRejected() {
+        transferConfig.setMode(TransferMode.ATOMIC);
+        TransferRequest request = TransferRequest.builder()
+                .fromCard(card1.getId())
+                .toCard(card2.getId())
+                .amount(new BigDecimal("2000.00"))
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.transferBalance(card1.getId(), card2.getId(), request.getAmount(),
+                user.getId(), false, CardStatus.BLOCKED)).thenReturn(1);
+        when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
+        when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
+
+        assertThrows(NotEnoughFundsException.class, () ->
+                cardService.transferFundsBetweenOwnCards(request));
+    }
+
+    @Test
+    void transferFundsInBatch_ShouldApplySuccessfulTransfers_WhenNotAllOrNothing() {
+        BatchTransferRequest request = BatchTransferRequest.builder()
+                .transfers(List.of(
+                        new TransferRequest(card1.getId(), card2.getId(), new BigDecimal("300.00")),
+                        new TransferRequest(card2.getId(), card1.getId(), new BigDecimal("5000.00"))))
+                .allOrNothing(false)
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findAllByIdAndUserIdForUpdate(anyCollection(), eq(user.getId()))).thenReturn(List.of(card1, card2));
+
+        var response = cardService.transferFundsInBatch(request);
+
+        assertTrue(response.isCommitted());
+        assertEquals(TransferStatus.COMPLETED, response.getResults().get(0).getStatus());
+        assertEquals(TransferStatus.FAILED, response.getResults().get(1).getStatus());
+        assertEquals(new BigDecimal("700.00"), card1.getBalance());
+        assertEquals(new BigDecimal("800.00"), card2.getBalance());
+        verify(authService, times(1)).getCurrentPrincipal();
+        verify(cardRepository).saveAll(anyCollection());
+    }
+
+    @Test
+    void transferFundsInBatch_ShouldNotLockOtherUsersCards_AndReportThemAsNotFound() {
+        var foreignCardId = UUID.randomUUID();
+        BatchTransferRequest request = BatchTransferRequest.builder()
+                .transfers(List.of(
+                        new TransferRequest(card1.getId(), foreignCardId, new BigDecimal("10.00")),
+                        new TransferRequest(card1.getId(), card2.getId(), new BigDecimal("10.00"))))
+                .allOrNothing(false)
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findAllByIdAndUserIdForUpdate(
+                Set.of(card1.getId(), card2.getId(), foreignCardId), user.getId()))
+                .thenReturn(List.of(card1, card2));
+
+        var response = cardService.transferFundsInBatch(request);
+
+        assertEquals(TransferStatus.FAILED, response.getResults().get(0).getStatus());
+        assertEquals("Card not found", response.getResults().get(0).getError());
+        assertEquals(TransferStatus.COMPLETED, response.getResults().get(1).getStatus());
+        verify(cardRepository, never()).findAllByIdForUpdate(anyCollection());
+    }
+
+    @Test
+    void transferFundsInBatch_ShouldRollBackWholeBatch_WhenAllOrNothingAndItemFails() {
+        BatchTransferRequest request = BatchTransferRequest.builder()
+                .transfers(List.of(
+                        new TransferRequest(card1.getId(), card2.getId(), new BigDecimal("300.00")),
+                        new TransferRequest(card2.getId(), UUID.randomUUID(), new BigDecimal("10.00")),
+                        new TransferRequest(card2.getId(), card1.getId(), new BigDecimal("10.00"))))
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findAllByIdAndUserIdForUpdate(anyCollection(), eq(user.getId()))).thenReturn(List.of(card1, card2));
+
+        var exception = assertThrows(BatchTransferRejectedException.class, () ->
+                cardService.transferFundsInBatch(request));
+
+        var results = exception.getResponse().getResults();
+        assertFalse(exception.getResponse().isCommitted());
+        assertEquals(TransferStatus.ROLLED_BACK, results.get(0).getStatus());
+        assertEquals(TransferStatus.FAILED, results.get(1).getStatus());
+        assertEquals("Card not found", results.get(1).getError());
+        assertEquals(TransferStatus.ROLLED_BACK, results.get(2).getStatus());
+        verify(cardRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void transferFundsBetweenOwnCards_ShouldAppendPendingEntry_InLedgerMode() {
+        transferConfig.setMode(TransferMode.LEDGER);
+        TransferRequest request = TransferRequest.builder()
+                .fromCard(card1.getId())
+                .toCard(card2.getId())
+                .amount(new BigDecimal("100.00"))
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findByIdForUpdate(card1.getId())).thenReturn(Optional.of(card1));
+        when(cardRepository.findByIdForUpdate(card2.getId())).thenReturn(Optional.of(card2));
+        when(ledgerService.availableBalance(card1)).thenReturn(new BigDecimal("150.00"));
+
+        cardService.transferFundsBetweenOwnCards(request);
+
+        verify(ledgerService).recordPending(card1.getId(), card2.getId(), request.getAmount());
+        verify(cardRepository, never()).saveAll(anyList());
+        assertEquals(new BigDecimal("1000.00"), card1.getBalance());
+    }
+
+    @Test
+    void transferFundsBetweenOwnCards_ShouldCountPendingDebits_InLedgerMode() {
+        transferConfig.setMode(TransferMode.LEDGER);
+        TransferRequest request = TransferRequest.builder()
+                .fromCard(card1.getId())
+                .toCard(card2.getId())
+                .amount(new BigDecimal("100.00"))
+                .build();
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findByIdForUpdate(card1.getId())).thenReturn(Optional.of(card1));
+        when(cardRepository.findByIdForUpdate(card2.getId())).thenReturn(Optional.of(card2));
+        when(ledgerService.availableBalance(card1)).thenReturn(new BigDecimal("50.00"));
+
+        assertThrows(NotEnoughFundsException.class, () ->
+                cardService.transferFundsBetweenOwnCards(request));
+
+        verify(ledgerService, never()).recordPending(any(), any(), any());
+    }
+
+    @Test
+    void transferFundsBetweenOwnCards_ShouldRegisterIdempotencyKeyBeforeTransfer() {
+        TransferRequest request = TransferRequest.builder()
+                .fromCard(card1.getId())
+                .toCard(card2.getId())
+                .amount(new BigDecimal("100.00"))
+                .build();
+        IdempotentRequest idempotentRequest = new IdempotentRequest(user.getId(), "retry-1", "hash");
+
+        when(authService.getCurrentPrincipal()).thenReturn(AuthenticatedUser.from(user));
+        when(cardRepository.findById(card1.getId())).thenReturn(Optional.of(card1));
+        when(cardRepository.findById(card2.getId())).thenReturn(Optional.of(card2));
+
+        cardService.transferFundsBetweenOwnCards(request, idempotentRequest);
+
+        InOrder inOrder = inOrder(idempotencyService, cardRepository);
+        inOrder.verify(idempotencyService).register(idempotentRequest);
+        inOrder.verify(cardRepository).saveAll(anyList());
+    }
+
+    private static CardEncryptionConfig encryptionConfig() {
+        var config = new CardEncryptionConfig();
+        config.setKey("dGVzdC1jYXJkLWVuY3J5cHRpb24ta2V5LTMyLWJ5dGU=");
+        config.setHashKey("dGVzdC1jYXJkLW51bWJlci1obWFjLWtleS0zMmJ5dGU=");
+        return config;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.config.TransferMode;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BatchTransferRejectedException;
+import com.example.bankcards.exception.NotEnoughFundsException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import com.example.bankcards.security.AuthenticatedUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.transfer.retry.max-attempts=20")
+class CardTransferConcurrencyTest {
+
+    private static final int CARDS = 4;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransferConfig transferConfig;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private User owner;
+    private List<UUID> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Payroll");
+        user.setEmail("payroll@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+
+        cardIds = IntStream.range(0, CARDS)
+                .mapToObj(i -> cardRepository.save(Card.builder()
+                        .number("400000000000000" + i)
+                        .user(owner)
+                        .expirationDate(LocalDate.now().plusYears(3))
+                        .status(CardStatus.ACTIVE)
+                        .balance(INITIAL_BALANCE)
+                        .build()))
+                .map(card -> {
+                    ledgerService.recordOpening(card);
+                    return card.getId();
+                })
+                .toList();
+    }
+
+    @AfterEach
+    void restoreMode() {
+        transferConfig.setMode(TransferMode.OPTIMISTIC);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransferMode.class)
+    void concurrentTransfers_ShouldConserveMoneyAndNeverDeadlock(TransferMode mode) throws Exception {
+        transferConfig.setMode(mode);
+        Map<UUID, BigDecimal> expectedDeltas = new ConcurrentHashMap<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                authenticate(owner);
+                await(start);
+                var random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    var from = cardIds.get(random.nextInt(CARDS));
+                    var to = cardIds.get(random.nextInt(CARDS));
+                    if (from.equals(to)) {
+                        continue;
+                    }
+                    var amount = BigDecimal.valueOf(random.nextInt(1, 300));
+
+                    try {
+                        cardService.transferFundsBetweenOwnCards(new TransferRequest(from, to, amount));
+                        expectedDeltas.merge(from, amount.negate(), BigDecimal::add);
+                        expectedDeltas.merge(to, amount, BigDecimal::add);
+                    } catch (NotEnoughFundsException ignored) {
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+                SecurityContextHolder.clearContext();
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        assertTrue(failures.isEmpty(), () -> "Unexpected transfer failures: " + failures);
+        assertBalances(expectedDeltas);
+    }
+
+    @Test
+    void concurrentBatchTransfers_ShouldConserveMoneyAndNeverDeadlock() throws Exception {
+        Map<UUID, BigDecimal> expectedDeltas = new ConcurrentHashMap<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                authenticate(owner);
+                await(start);
+                var random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < TRANSFERS_PER_THREAD / 5; i++) {
+                    var transfers = new ArrayList<TransferRequest>();
+                    while (transfers.size() < 5) {
+                        var from = cardIds.get(random.nextInt(CARDS));
+                        var to = cardIds.get(random.nextInt(CARDS));
+                        if (!from.equals(to)) {
+                            transfers.add(new TransferRequest(from, to, BigDecimal.valueOf(random.nextInt(1, 300))));
+                        }
+                    }
+
+                    try {
+                        cardService.transferFundsInBatch(new BatchTransferRequest(transfers, true));
+                        for (TransferRequest transfer : transfers) {
+                            expectedDeltas.merge(transfer.getFromCard(), transfer.getAmount().negate(), BigDecimal::add);
+                            expectedDeltas.merge(transfer.getToCard(), transfer.getAmount(), BigDecimal::add);
+                        }
+                    } catch (BatchTransferRejectedException ignored) {
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+                SecurityContextHolder.clearContext();
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        assertTrue(failures.isEmpty(), () -> "Unexpected batch failures: " + failures);
+        assertBalances(expectedDeltas);
+    }
+
+    @Test
+    void applyPending_ShouldSkipOrphanedEntry_AndApplyLaterOnes() {
+        var from = cardIds.get(0);
+        var to = cardIds.get(1);
+        ledgerService.recordPending(from, UUID.randomUUID(), new BigDecimal("100.00"));
+        ledgerService.recordPending(from, to, new BigDecimal("30.00"));
+
+        drainLedger();
+
+        assertFalse(ledgerService.hasPending(from));
+        assertEquals(0, new BigDecimal("970.00").compareTo(cardRepository.findById(from).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("1030.00").compareTo(cardRepository.findById(to).orElseThrow().getBalance()));
+        assertTrue(ledgerService.rebuildBalances().isEmpty(), "Balances diverged from the ledger");
+    }
+
+    private void assertBalances(Map<UUID, BigDecimal> expectedDeltas) {
+        drainLedger();
+        assertTrue(ledgerService.rebuildBalances().isEmpty(), "Balances diverged from the ledger");
+
+        var cards = cardRepository.findAllById(cardIds);
+        var total = cards.stream().map(Card::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(CARDS)).compareTo(total));
+
+        for (Card card : cards) {
+            var expected = INITIAL_BALANCE.add(expectedDeltas.getOrDefault(card.getId(), BigDecimal.ZERO));
+            assertEquals(0, expected.compareTo(card.getBalance()), "Lost update on card " + card.getId());
+            assertTrue(card.getBalance().signum() >= 0);
+        }
+    }
+
+    private void drainLedger() {
+        int applied = -1;
+        while (applied != 0) {
+            try {
+                applied = ledgerService.applyPending();
+            } catch (OptimisticLockingFailureException e) {
+                applied = -1;
+            }
+        }
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                AuthenticatedUser.from(user),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+        ));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
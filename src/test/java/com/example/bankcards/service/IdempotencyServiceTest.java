@@ -0,0 +1,94 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.IdempotencyConfig;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.example.bankcards.exception.IllegalTransferException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    private IdempotencyService idempotencyService;
+    private TransferRequest request;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(repository, new IdempotencyConfig(), new SimpleMeterRegistry());
+        request = new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("100.00"));
+    }
+
+    @Test
+    void describe_ShouldHashEqualAmountsTheSame() {
+        var sameAmount = new TransferRequest(request.getFromCard(), request.getToCard(), new BigDecimal("100"));
+
+        assertEquals(
+                idempotencyService.describe(1L, "key", request).requestHash(),
+                idempotencyService.describe(1L, "key", sameAmount).requestHash());
+    }
+
+    @Test
+    void describe_ShouldRejectBlankKey() {
+        assertThrows(IllegalTransferException.class, () -> idempotencyService.describe(1L, " ", request));
+    }
+
+    @Test
+    void isReplay_ShouldAnswerFromCache_AfterRemember() {
+        var idempotentRequest = idempotencyService.describe(1L, "key", request);
+        assertFalse(idempotencyService.isReplay(idempotentRequest));
+
+        idempotencyService.remember(idempotentRequest);
+
+        assertTrue(idempotencyService.isReplay(idempotentRequest));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void isReplay_ShouldThrow_WhenKeyReusedWithDifferentPayload() {
+        idempotencyService.remember(idempotencyService.describe(1L, "key", request));
+        var otherRequest = new TransferRequest(request.getFromCard(), request.getToCard(), new BigDecimal("5.00"));
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyService.isReplay(idempotencyService.describe(1L, "key", otherRequest)));
+    }
+
+    @Test
+    void isReplay_ShouldNotShareKeysBetweenUsers() {
+        idempotencyService.remember(idempotencyService.describe(1L, "key", request));
+
+        assertFalse(idempotencyService.isReplay(idempotencyService.describe(2L, "key", request)));
+    }
+
+    @Test
+    void isStoredReplay_ShouldCompareWithPersistedHash() {
+        var idempotentRequest = idempotencyService.describe(1L, "key", request);
+        when(repository.findRequestHash(1L, "key")).thenReturn(Optional.of(idempotentRequest.requestHash()));
+
+        assertTrue(idempotencyService.isStoredReplay(idempotentRequest));
+        assertTrue(idempotencyService.isReplay(idempotentRequest));
+    }
+
+    @Test
+    void isStoredReplay_ShouldReturnFalse_WhenKeyNotStored() {
+        var idempotentRequest = idempotencyService.describe(1L, "key", request);
+        when(repository.findRequestHash(1L, "key")).thenReturn(Optional.empty());
+
+        assertFalse(idempotencyService.isStoredReplay(idempotentRequest));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.example.bankcards.security.AuthenticatedUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.idempotency.cache-size=0")
+class IdempotentTransferServiceTest {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("100.00");
+
+    @Autowired
+    private IdempotentTransferService idempotentTransferService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private User owner;
+    private Card source;
+    private Card target;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        var user = new User();
+        user.setName("Mobile");
+        user.setEmail("mobile@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        owner = userRepository.save(user);
+
+        source = cardRepository.save(card("4000000000000001"));
+        target = cardRepository.save(card("4000000000000002"));
+        authenticate(owner);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void transfer_ShouldApplyOnce_WhenReplayedWithSameKey() {
+        var request = new TransferRequest(source.getId(), target.getId(), AMOUNT);
+
+        idempotentTransferService.transfer(request, "retry-1");
+        idempotentTransferService.transfer(request, "retry-1");
+
+        assertBalance(source, INITIAL_BALANCE.subtract(AMOUNT));
+        assertBalance(target, INITIAL_BALANCE.add(AMOUNT));
+    }
+
+    @Test
+    void transfer_ShouldReject_WhenKeyReusedWithDifferentPayload() {
+        idempotentTransferService.transfer(new TransferRequest(source.getId(), target.getId(), AMOUNT), "retry-1");
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotentTransferService.transfer(
+                new TransferRequest(target.getId(), source.getId(), AMOUNT), "retry-1"));
+        assertBalance(source, INITIAL_BALANCE.subtract(AMOUNT));
+    }
+
+    @Test
+    void transfer_ShouldApplyOnce_WhenSameKeyArrivesConcurrently() throws Exception {
+        var request = new TransferRequest(source.getId(), target.getId(), AMOUNT);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(4);
+
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                authenticate(owner);
+                try {
+                    start.await();
+                    idempotentTransferService.transfer(request, "storm-1");
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        assertBalance(source, INITIAL_BALANCE.subtract(AMOUNT));
+    }
+
+    private Card card(String number) {
+        return Card.builder()
+                .number(number)
+                .user(owner)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(INITIAL_BALANCE)
+                .build();
+    }
+
+    private void assertBalance(Card card, BigDecimal expected) {
+        var balance = cardRepository.findById(card.getId()).orElseThrow().getBalance();
+        assertEquals(0, expected.compareTo(balance), "Unexpected balance " + balance);
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                AuthenticatedUser.from(user),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+        ));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerApplierTest {
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private final TransferConfig transferConfig = new TransferConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LedgerApplier applier;
+
+    @BeforeEach
+    void setUp() {
+        transferConfig.getLedger().setBatchSize(2);
+        applier = new LedgerApplier(ledgerService, transferConfig, registry);
+    }
+
+    @Test
+    void applyPendingEntries_ShouldDrainFullBatches() {
+        when(ledgerService.applyPending()).thenReturn(2, 2, 1);
+
+        applier.applyPendingEntries();
+
+        verify(ledgerService, times(3)).applyPending();
+        assertEquals(0.0, failures("conflict") + failures("error"));
+    }
+
+    @Test
+    void applyPendingEntries_ShouldCountConflicts() {
+        when(ledgerService.applyPending()).thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        applier.applyPendingEntries();
+
+        assertEquals(1.0, failures("conflict"));
+        assertEquals(0.0, failures("error"));
+    }
+
+    @Test
+    void applyPendingEntries_ShouldCountErrors() {
+        when(ledgerService.applyPending()).thenThrow(new IllegalStateException("broken"));
+
+        applier.applyPendingEntries();
+
+        assertEquals(0.0, failures("conflict"));
+        assertEquals(1.0, failures("error"));
+    }
+
+    private double failures(String reason) {
+        return registry.get("ledger.apply.failures").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.CardAmount;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository repository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Spy
+    private TransferConfig transferConfig = new TransferConfig();
+
+    @Mock
+    private CardBalanceCache balanceCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private final UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Test
+    void applyPending_ShouldApplyNetDeltasAndMarkEntriesApplied() {
+        when(repository.findPendingIds(Limit.of(1000))).thenReturn(List.of(7L, 9L));
+        when(repository.countPending(9L)).thenReturn(2L);
+        when(repository.sumPendingCredits(9L)).thenReturn(List.of(amount(second, "30.00"), amount(first, "5.00")));
+        when(repository.sumPendingDebits(9L)).thenReturn(List.of(amount(first, "30.00"), amount(second, "5.00")));
+        when(cardRepository.applyBalanceDelta(any(), any())).thenReturn(1);
+        when(repository.markApplied(eq(9L), any(Instant.class))).thenReturn(2);
+
+        assertEquals(2, ledgerService.applyPending());
+
+        verify(cardRepository).applyBalanceDelta(first, new BigDecimal("-25.00"));
+        verify(cardRepository).applyBalanceDelta(second, new BigDecimal("25.00"));
+        verify(balanceCache).evictAfterCommit(Set.of(first, second));
+    }
+
+    @Test
+    void applyPending_ShouldDoNothing_WhenNoPendingEntries() {
+        when(repository.findPendingIds(any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, ledgerService.applyPending());
+
+        verify(cardRepository, never()).applyBalanceDelta(any(), any());
+        verify(repository, never()).markApplied(any(), any());
+    }
+
+    @Test
+    void applyPending_ShouldThrow_WhenEntriesChangedConcurrently() {
+        when(repository.findPendingIds(any(Limit.class))).thenReturn(List.of(3L));
+        when(repository.countPending(3L)).thenReturn(1L);
+        when(repository.sumPendingCredits(3L)).thenReturn(List.of(amount(second, "10.00")));
+        when(repository.sumPendingDebits(3L)).thenReturn(List.of(amount(first, "10.00")));
+        when(cardRepository.applyBalanceDelta(any(), any())).thenReturn(1);
+        when(repository.markApplied(eq(3L), any(Instant.class))).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> ledgerService.applyPending());
+    }
+
+    @Test
+    void applyPending_ShouldThrow_WhenEntriesWereAppliedByAnotherApplier() {
+        when(repository.findPendingIds(any(Limit.class))).thenReturn(List.of(3L));
+        when(repository.countPending(3L)).thenReturn(1L);
+        when(repository.sumPendingCredits(3L)).thenReturn(List.of(amount(second, "10.00")));
+        when(repository.sumPendingDebits(3L)).thenReturn(List.of(amount(first, "10.00")));
+        when(cardRepository.applyBalanceDelta(any(), any())).thenReturn(1);
+        when(repository.markApplied(eq(3L), any(Instant.class)))
+                .thenThrow(new DataIntegrityViolationException("pk_ledger_applications"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> ledgerService.applyPending());
+    }
+
+    @Test
+    void applyPending_ShouldFailWithoutMarkingEntries_WhenCardIsMissing() {
+        when(repository.findPendingIds(any(Limit.class))).thenReturn(List.of(3L));
+        when(repository.countPending(3L)).thenReturn(1L);
+        when(repository.sumPendingCredits(3L)).thenReturn(List.of(amount(second, "10.00")));
+        when(repository.sumPendingDebits(3L)).thenReturn(List.of(amount(first, "10.00")));
+        when(cardRepository.applyBalanceDelta(first, new BigDecimal("-10.00"))).thenReturn(1);
+        when(cardRepository.applyBalanceDelta(second, new BigDecimal("10.00"))).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> ledgerService.applyPending());
+        verify(repository, never()).markApplied(any(), any());
+    }
+
+    @Test
+    void applyPending_ShouldSkipAndCountOrphanedEntries_AndApplyTheRest() {
+        when(repository.findPendingIds(any(Limit.class))).thenReturn(List.of(3L, 4L));
+        when(repository.markOrphaned(eq(4L), any(Instant.class))).thenReturn(1);
+        when(repository.countPending(4L)).thenReturn(1L);
+        when(repository.sumPendingCredits(4L)).thenReturn(List.of(amount(second, "10.00")));
+        when(repository.sumPendingDebits(4L)).thenReturn(List.of(amount(first, "10.00")));
+        when(cardRepository.applyBalanceDelta(any(), any())).thenReturn(1);
+        when(repository.markApplied(eq(4L), any(Instant.class))).thenReturn(1);
+
+        assertEquals(2, ledgerService.applyPending());
+
+        verify(cardRepository).applyBalanceDelta(first, new BigDecimal("-10.00"));
+        verify(cardRepository).applyBalanceDelta(second, new BigDecimal("10.00"));
+        assertEquals(1.0, meterRegistry.get("ledger.entries.orphaned").counter().count());
+    }
+
+    @Test
+    void rebuildBalances_ShouldResetMismatchedBalancesFromLedger() {
+        var card = Card.builder().id(first).balance(new BigDecimal("120.00")).build();
+
+        when(repository.sumAppliedCredits()).thenReturn(List.of(amount(first, "150.00"), amount(second, "50.00")));
+        when(repository.sumAppliedDebits()).thenReturn(List.of(amount(first, "50.00")));
+        when(cardRepository.findAllBalances()).thenReturn(List.of(amount(first, "120.00"), amount(second, "50.00")));
+        when(cardRepository.findByIdForUpdate(first)).thenReturn(Optional.of(card));
+        when(repository.sumAppliedBalance(first)).thenReturn(new BigDecimal("100.00"));
+
+        var mismatches = ledgerService.rebuildBalances();
+
+        assertEquals(1, mismatches.size());
+        assertEquals(first, mismatches.get(0).getCardId());
+        assertEquals(new BigDecimal("100.00"), card.getBalance());
+        verify(cardRepository, never()).findByIdForUpdate(second);
+    }
+
+    private static CardAmount amount(UUID cardId, String amount) {
+        return new CardAmount() {
+            @Override
+            public UUID getCardId() {
+                return cardId;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
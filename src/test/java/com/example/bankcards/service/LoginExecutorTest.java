@@ -0,0 +1,72 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.LoginConfig;
+import com.example.bankcards.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginExecutorTest {
+
+    private SimpleMeterRegistry registry;
+    private LoginExecutor loginExecutor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        var config = new LoginConfig();
+        config.setPoolSize(1);
+        config.setQueueCapacity(1);
+        registry = new SimpleMeterRegistry();
+        loginExecutor = new LoginExecutor(config, registry);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        loginExecutor.destroy();
+    }
+
+    @Test
+    void submit_ShouldRunTaskOffCallerThread() throws Exception {
+        var caller = Thread.currentThread().getName();
+
+        var worker = loginExecutor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(caller, worker);
+        assertTrue(worker.startsWith("login-"));
+    }
+
+    @Test
+    void submit_ShouldRejectImmediately_WhenPoolAndQueueAreFull() {
+        var started = new CountDownLatch(1);
+        loginExecutor.submit(() -> {
+            started.countDown();
+            return awaitRelease();
+        });
+        assertDoesNotThrow(() -> started.await(5, TimeUnit.SECONDS));
+        var queued = loginExecutor.submit(this::awaitRelease);
+
+        assertThrows(LoginThrottledException.class, () -> loginExecutor.submit(() -> "rejected"));
+        assertEquals(1.0, registry.counter("login.rejected").count());
+
+        release.countDown();
+        assertDoesNotThrow(() -> queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private String awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.user.ChangePasswordRequest;
+import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.UserSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserLookupTest {
+
+    @Autowired
+    private UserLookup userLookup;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        userRepository.deleteAll();
+
+        var newUser = new User();
+        newUser.setName("Cached");
+        newUser.setEmail("cached@example.com");
+        newUser.setPassword(passwordEncoder.encode("password"));
+        newUser.setRole(Role.USER);
+        user = userRepository.save(newUser);
+    }
+
+    @Test
+    void findById_ShouldServeRepeatedLookupsFromCache() {
+        var first = userLookup.findById(user.getId()).orElseThrow();
+        userRepository.deleteById(user.getId());
+
+        assertSame(first, userLookup.findById(user.getId()).orElseThrow());
+    }
+
+    @Test
+    void findByEmail_ShouldNotCacheMissingUsers() {
+        assertTrue(userLookup.findByEmail("missing@example.com").isEmpty());
+        assertNull(cacheManager.getCache(UserLookup.USERS_BY_EMAIL).get("missing@example.com"));
+    }
+
+    @Test
+    void updateUser_ShouldEvictCachedEntriesForOldAndNewEmail() {
+        userLookup.findById(user.getId());
+        userLookup.findByEmail("cached@example.com");
+
+        var request = new UpdateUserRequest();
+        request.setName("Renamed");
+        request.setEmail("renamed@example.com");
+        userService.updateUser(user.getId(), request);
+
+        assertEquals("Renamed", userLookup.findById(user.getId()).orElseThrow().name());
+        assertTrue(userLookup.findByEmail("cached@example.com").isEmpty());
+        assertEquals(user.getId(), userLookup.findByEmail("renamed@example.com").orElseThrow().id());
+    }
+
+    @Test
+    void changePassword_ShouldEvictCachedUser() {
+        userLookup.findByEmail("cached@example.com");
+
+        var request = new ChangePasswordRequest();
+        request.setOldPassword("password");
+        request.setNewPassword("new-password");
+        userService.changePassword(user.getId(), request);
+
+        assertNull(cacheManager.getCache(UserLookup.USERS_BY_EMAIL).get("cached@example.com"));
+        assertTrue(passwordEncoder.matches("new-password",
+                userRepository.findById(user.getId()).orElseThrow().getPassword()));
+    }
+
+    @Test
+    void findById_ShouldCacheImmutableSnapshotWithoutPassword() {
+        var snapshot = userLookup.findById(user.getId()).orElseThrow();
+
+        assertEquals(new UserSnapshot(user.getId(), "cached@example.com", "Cached", Role.USER, user.getVersion()),
+                snapshot);
+        assertSame(snapshot, cacheManager.getCache(UserLookup.USERS).get(user.getId()).get());
+    }
+
+    @Test
+    void deleteUser_ShouldEvictCachedUser() {
+        userLookup.findById(user.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertTrue(userLookup.findById(user.getId()).isEmpty());
+    }
+}
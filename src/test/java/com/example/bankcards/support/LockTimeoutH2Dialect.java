@@ -0,0 +1,11 @@
+package com.example.bankcards.support;
+
+import org.hibernate.dialect.H2Dialect;
+
+public class LockTimeoutH2Dialect extends H2Dialect {
+
+    @Override
+    public boolean supportsWait() {
+        return true;
+    }
+}
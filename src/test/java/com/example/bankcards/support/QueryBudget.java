@@ -0,0 +1,44 @@
+package com.example.bankcards.support;
+
+import com.example.bankcards.monitoring.SqlStatistics;
+import com.example.bankcards.monitoring.SqlStatisticsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static <T> T atMost(int statements, Supplier<T> action) {
+        try (var statistics = SqlStatistics.start()) {
+            var result = action.get();
+            assertWithinBudget(statements, statistics.getStatements());
+            return result;
+        }
+    }
+
+    public static void atMost(int statements, Runnable action) {
+        atMost(statements, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static ResultMatcher statementsAtMost(int statements) {
+        return result -> {
+            var header = result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+            assertNotNull(header, "Response has no " + SqlStatisticsFilter.STATEMENTS_HEADER + " header");
+            assertWithinBudget(statements, Integer.parseInt(header));
+        };
+    }
+
+    private static void assertWithinBudget(int budget, int actual) {
+        assertTrue(actual <= budget, () -> "Query budget exceeded: expected at most " + budget
+                + " statements but " + actual + " were executed");
+    }
+}
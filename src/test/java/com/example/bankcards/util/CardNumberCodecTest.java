@@ -0,0 +1,87 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.card.CreateCardRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumberCodecTest {
+
+    private final CardNumberCodec codec = new CardNumberCodec();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4111111111111111", "4111 1111 1111 1111", "4111-1111-1111-1111", "1111222233334444"})
+    void isValid_ShouldAcceptSixteenDigitsWithValidChecksum(String number) {
+        assertTrue(CardNumberCodec.isValid(number));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            "4111111111111112",
+            "411111111111111",
+            "41111111111111111",
+            "4111 1111 1111 111a",
+            "4111_1111_1111_1111",
+            "                "
+    })
+    void isValid_ShouldRejectMalformedNumbersAndBadChecksums(String number) {
+        assertFalse(CardNumberCodec.isValid(number));
+    }
+
+    @Test
+    void normalize_ShouldStripSeparators() {
+        assertEquals("4111111111111111", CardNumberCodec.normalize("4111 1111-1111 1111"));
+    }
+
+    @Test
+    void normalize_ShouldReturnSameInstance_WhenNothingToStrip() {
+        var number = "4111111111111111";
+
+        assertSame(number, CardNumberCodec.normalize(number));
+    }
+
+    @Test
+    void normalize_ShouldLeaveInvalidInputForValidation() {
+        assertEquals("4111 1111 1111", CardNumberCodec.normalize("4111 1111 1111"));
+        assertEquals("4111 1111 1111 111x", CardNumberCodec.normalize("4111 1111 1111 111x"));
+        assertNull(CardNumberCodec.normalize(null));
+    }
+
+    @Test
+    void mask_ShouldKeepLastFourDigits() {
+        assertEquals("**** **** **** 4444", codec.mask("1111222233334444"));
+        assertEquals("**** **** **** 1111", codec.mask("4111111111111111"));
+    }
+
+    @Test
+    void mask_ShouldWriteIntoCallerBuffer() {
+        var buffer = new char[CardNumberCodec.MASKED_LENGTH + 2];
+
+        var length = codec.mask("1111222233334444", buffer, 2);
+
+        assertEquals(CardNumberCodec.MASKED_LENGTH, length);
+        assertEquals("**** **** **** 4444", new String(buffer, 2, length));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"1", "123"})
+    void mask_ShouldRejectMissingOrShortNumber(String number) {
+        var buffer = new char[CardNumberCodec.MASKED_LENGTH];
+
+        assertThrows(IllegalArgumentException.class, () -> codec.mask(number));
+        assertThrows(IllegalArgumentException.class, () -> codec.mask(number, buffer, 0));
+    }
+
+    @Test
+    void createCardRequest_ShouldNormalizeNumberOnDeserialization() throws Exception {
+        var request = new ObjectMapper().readValue("{\"number\":\"1111-2222-3333-4444\"}", CreateCardRequest.class);
+
+        assertEquals("1111222233334444", request.getNumber());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    private static final int ELEMENTS = 100_000;
+
+    @Test
+    void mightContain_ShouldNeverMissInsertedValues() {
+        var filter = new CountingBloomFilter(ELEMENTS, 0.01);
+        IntStream.range(0, ELEMENTS).forEach(i -> filter.put(number(i)));
+
+        assertTrue(IntStream.range(0, ELEMENTS).allMatch(i -> filter.mightContain(number(i))));
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositiveRateNearConfigured() {
+        var filter = new CountingBloomFilter(ELEMENTS, 0.01);
+        IntStream.range(0, ELEMENTS).forEach(i -> filter.put(number(i)));
+
+        var falsePositives = IntStream.range(ELEMENTS, 2 * ELEMENTS)
+                .filter(i -> filter.mightContain(number(i)))
+                .count();
+
+        var rate = (double) falsePositives / ELEMENTS;
+        assertTrue(rate < 0.02, "False positive rate " + rate);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(ELEMENTS), 0.002);
+    }
+
+    @Test
+    void memoryBytes_ShouldUseFourBitsPerCounter() {
+        var filter = new CountingBloomFilter(1_000_000, 0.01);
+
+        assertEquals(7, filter.hashes());
+        assertEquals(4_792_536, filter.memoryBytes(), 8);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(10, 1.0));
+    }
+
+    private static String number(int i) {
+        return String.format("4000%012d", i);
+    }
+}